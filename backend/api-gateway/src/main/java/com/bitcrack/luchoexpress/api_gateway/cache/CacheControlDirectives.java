@@ -0,0 +1,83 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Directivas de Cache-Control (y Pragma: no-cache) relevantes para una cache compartida.
+ */
+record CacheControlDirectives(Map<String, String> directives) {
+    
+    static CacheControlDirectives of(HttpHeaders headers) {
+        Map<String, String> directives = new HashMap<>();
+        List<String> values = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                int eq = trimmed.indexOf('=');
+                if (eq < 0) {
+                    directives.put(trimmed.toLowerCase(Locale.ROOT), "");
+                } else {
+                    directives.put(trimmed.substring(0, eq).trim().toLowerCase(Locale.ROOT),
+                            trimmed.substring(eq + 1).trim().replace("\"", ""));
+                }
+            }
+        }
+        if (headers.getOrEmpty(HttpHeaders.PRAGMA).stream().anyMatch(p -> p.toLowerCase(Locale.ROOT).contains("no-cache"))) {
+            directives.putIfAbsent("no-cache", "");
+        }
+        return new CacheControlDirectives(directives);
+    }
+    
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+    
+    Optional<Duration> seconds(String directive) {
+        String value = directives.get(directive);
+        if (value == null || value.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Tiempo que una cache compartida puede servir la respuesta, acotado por el TTL de la ruta.
+     * Vacío si la respuesta no se puede guardar (private, no-store, no-cache o max-age=0 sin s-maxage).
+     */
+    Optional<Duration> sharedFreshness(Duration routeTtl) {
+        if (has("no-store") || has("private")) {
+            return Optional.empty();
+        }
+        Optional<Duration> sMaxAge = seconds("s-maxage");
+        if (sMaxAge.isPresent()) {
+            return positiveMin(sMaxAge.get(), routeTtl);
+        }
+        if (has("no-cache")) {
+            return Optional.empty();
+        }
+        Optional<Duration> maxAge = seconds("max-age");
+        if (maxAge.isPresent()) {
+            return positiveMin(maxAge.get(), routeTtl);
+        }
+        return positiveMin(routeTtl, routeTtl);
+    }
+    
+    private static Optional<Duration> positiveMin(Duration a, Duration b) {
+        Duration min = a.compareTo(b) <= 0 ? a : b;
+        return min.isZero() || min.isNegative() ? Optional.empty() : Optional.of(min);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Respuesta 200 guardada en la cache del gateway, con las cabeceras propias del backend (sin CORS ni hop-by-hop).
+ */
+record CachedResponse(HttpHeaders headers, byte[] body, long storedAtMillis, long expiresAtMillis) {
+    
+    // Estimación del tamaño en memoria, usada como peso para el presupuesto de bytes de la cache
+    int weight() {
+        int headerBytes = 0;
+        for (var entry : headers.entrySet()) {
+            headerBytes += entry.getKey().length();
+            for (String value : entry.getValue()) {
+                headerBytes += value.length();
+            }
+        }
+        return body.length + headerBytes * 2 + 64;
+    }
+    
+    long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+}
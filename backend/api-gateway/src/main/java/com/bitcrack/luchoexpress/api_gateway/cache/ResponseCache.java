@@ -0,0 +1,143 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Almacén en memoria de respuestas GET públicas, acotado por bytes (gateway.response-cache.max-size).
+ * Caffeine desaloja por peso con su política W-TinyLFU (LRU con admisión por frecuencia), que protege
+ * las respuestas calientes del catálogo frente a barridos de URLs únicas.
+ * <p>
+ * Las respuestas con Vary se guardan bajo una clave secundaria que incluye los valores de esas cabeceras
+ * en la petición; los nombres se recuerdan por clave primaria (método + path + query).
+ * Métricas: cache.gets{cache=gateway.response,result=hit|miss}, cache.evictions, gateway.response.cache.bytes,
+ * gateway.response.cache.hit.ratio y gateway.response.cache.bypass{reason=...}.
+ */
+@Component
+public class ResponseCache {
+    
+    private static final String CACHE_NAME = "gateway.response";
+    
+    private final Cache<String, CachedResponse> entries;
+    private final Cache<String, List<String>> varyByPrimaryKey;
+    private final long maxEntryBytes;
+    private final MeterRegistry meterRegistry;
+    
+    public ResponseCache(
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${gateway.response-cache.max-entry-size:2MB}") DataSize maxEntrySize,
+            MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.meterRegistry = meterRegistry;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        long remainingMillis = response.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.varyByPrimaryKey = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+        Gauge.builder("gateway.response.cache.bytes", entries,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Estimated bytes held by the gateway response cache")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.hit.ratio", entries, cache -> cache.stats().hitRate())
+                .description("Hit ratio of the gateway response cache since startup")
+                .register(meterRegistry);
+    }
+    
+    public static String primaryKey(String method, String path, String rawQuery) {
+        return method + " " + path + (rawQuery != null && !rawQuery.isEmpty() ? "?" + rawQuery : "");
+    }
+    
+    /**
+     * Tamaño máximo del cuerpo de una entrada (gateway.response-cache.max-entry-size); por encima no se acumula.
+     */
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+    
+    public CachedResponse lookup(String primaryKey, HttpHeaders requestHeaders) {
+        List<String> varyNames = varyByPrimaryKey.getIfPresent(primaryKey);
+        return entries.getIfPresent(secondaryKey(primaryKey, varyNames, requestHeaders));
+    }
+    
+    /**
+     * @return false si la respuesta supera el tamaño máximo por entrada o varía por todas las cabeceras (Vary: *)
+     */
+    public boolean store(String primaryKey, HttpHeaders requestHeaders, CachedResponse response) {
+        if (response.body().length > maxEntryBytes) {
+            recordBypass("too-large");
+            return false;
+        }
+        List<String> varyNames = varyNames(response.headers());
+        if (varyNames.contains("*")) {
+            recordBypass("vary-star");
+            return false;
+        }
+        varyByPrimaryKey.put(primaryKey, varyNames);
+        entries.put(secondaryKey(primaryKey, varyNames, requestHeaders), response);
+        return true;
+    }
+    
+    public void recordBypass(String reason) {
+        Counter.builder("gateway.response.cache.bypass")
+                .description("Cacheable-route requests that were not served from or stored in the cache")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private static List<String> varyNames(HttpHeaders responseHeaders) {
+        return responseHeaders.getOrEmpty(HttpHeaders.VARY).stream()
+                .flatMap(value -> List.of(value.split(",")).stream())
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+    
+    private static String secondaryKey(String primaryKey, List<String> varyNames, HttpHeaders requestHeaders) {
+        if (varyNames == null || varyNames.isEmpty()) {
+            return primaryKey;
+        }
+        StringBuilder key = new StringBuilder(primaryKey);
+        for (String name : varyNames) {
+            key.append('\n').append(name).append('=').append(String.join(",", requestHeaders.getOrEmpty(name)));
+        }
+        return key.toString();
+    }
+}
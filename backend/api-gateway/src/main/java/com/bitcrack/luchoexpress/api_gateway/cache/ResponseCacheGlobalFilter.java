@@ -0,0 +1,293 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de respuestas para los GET de las rutas que declaran {@code metadata.response-cache-ttl}.
+ * <p>
+ * El TTL de la ruta es un máximo: la respuesta del backend puede acortarlo (s-maxage / max-age) o impedir que se
+ * guarde (private, no-store, no-cache, Set-Cookie, Vary: *). Un cliente que pide no-cache salta la lectura pero la
+ * respuesta fresca sí se guarda. Las peticiones condicionales (If-None-Match) se resuelven aquí con 304, así que
+ * en un fallo se reenvían al backend sin la condición para poder guardar el cuerpo completo.
+ * <p>
+ * Solo se acumula en memoria el cuerpo de las respuestas que se pueden guardar y como mucho hasta
+ * gateway.response-cache.max-entry-size: las demás, y las que pasan de ese tamaño a mitad de cuerpo, se reenvían
+ * en streaming.
+ */
+@Component
+public class ResponseCacheGlobalFilter implements GlobalFilter, Ordered {
+    
+    public static final String TTL_METADATA_KEY = "response-cache-ttl";
+    
+    // Antes de NettyWriteResponseFilter (para ver el cuerpo que se escribe) y del coalescing: un acierto no llega a agruparse
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    
+    // Las cabeceras CORS las pone el gateway según el Origin de cada petición; las hop-by-hop no se reenvían
+    private static final Set<String> NON_CACHEABLE_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-authenticate", "proxy-authorization", "content-length", "date", "age", "x-cache");
+    
+    private final ResponseCache responseCache;
+    private final boolean enabled;
+    
+    public ResponseCacheGlobalFilter(
+            ResponseCache responseCache,
+            @Value("${gateway.response-cache.enabled:true}") boolean enabled) {
+        this.responseCache = responseCache;
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Optional<Duration> routeTtl = routeTtl(exchange);
+        if (!enabled || routeTtl.isEmpty() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        
+        CacheControlDirectives requestDirectives = CacheControlDirectives.of(request.getHeaders());
+        if (requestDirectives.has("no-store")) {
+            responseCache.recordBypass("request-no-store");
+            return chain.filter(exchange);
+        }
+        
+        String primaryKey = ResponseCache.primaryKey(request.getMethod().name(), request.getPath().value(),
+                request.getURI().getRawQuery());
+        if (!requestDirectives.has("no-cache")) {
+            CachedResponse cached = responseCache.lookup(primaryKey, request.getHeaders());
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+        } else {
+            responseCache.recordBypass("request-no-cache");
+        }
+        
+        // Fallo: se pide el cuerpo completo al backend y la condición del cliente se evalúa aquí
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        ServerHttpRequest unconditional = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(unconditional)
+                .response(new CachingResponseDecorator(exchange.getResponse(), primaryKey, request.getHeaders(),
+                        routeTtl.get(), ifNoneMatch))
+                .build();
+        return chain.filter(forwarded);
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+    
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.currentTimeMillis())));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        
+        if (etagMatches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), cached.headers().getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+    
+    private static Optional<Duration> routeTtl(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return Optional.empty();
+        }
+        Object ttl = route.getMetadata().get(TTL_METADATA_KEY);
+        if (ttl == null) {
+            return Optional.empty();
+        }
+        // Un número se interpreta en segundos; también se admite el formato de Spring ("30s", "5m")
+        Duration duration = ttl instanceof Number seconds
+                ? Duration.ofSeconds(seconds.longValue())
+                : DurationStyle.detectAndParse(ttl.toString().trim(), ChronoUnit.SECONDS);
+        return duration.isZero() || duration.isNegative() ? Optional.empty() : Optional.of(duration);
+    }
+    
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String normalizedEtag = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || stripWeak(trimmed).equals(normalizedEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+    
+    /**
+     * Captura el cuerpo de la respuesta del backend, lo guarda si es cacheable y responde 304 si el cliente ya lo tenía.
+     */
+    private final class CachingResponseDecorator extends ServerHttpResponseDecorator {
+        
+        private final String primaryKey;
+        private final HttpHeaders requestHeaders;
+        private final Duration routeTtl;
+        private final String ifNoneMatch;
+        
+        CachingResponseDecorator(ServerHttpResponse delegate, String primaryKey, HttpHeaders requestHeaders,
+                                 Duration routeTtl, String ifNoneMatch) {
+            super(delegate);
+            this.primaryKey = primaryKey;
+            this.requestHeaders = requestHeaders;
+            this.routeTtl = routeTtl;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+        
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                return super.writeWith(body);
+            }
+            
+            HttpHeaders headers = getHeaders();
+            // Se decide antes de escribir nada: el cliente ya tiene esta versión y no se le envía el cuerpo
+            boolean notModified = etagMatches(ifNoneMatch, headers.getETag());
+            if (notModified) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+            
+            Optional<Duration> freshness = freshness(headers);
+            if (freshness.isEmpty()) {
+                headers.set(CACHE_STATUS_HEADER, "BYPASS");
+                return notModified ? discard(body) : super.writeWith(body);
+            }
+            
+            // Se acumula hasta max-entry-size; si el cuerpo lo supera se reenvía lo acumulado y el resto en streaming
+            long maxEntryBytes = responseCache.maxEntryBytes();
+            AtomicLong size = new AtomicLong();
+            AtomicBoolean streaming = new AtomicBoolean();
+            Flux<DataBuffer> relayed = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxEntryBytes)
+                    .defaultIfEmpty(List.of())
+                    .concatMap(buffers -> {
+                        if (size.get() > maxEntryBytes) {
+                            if (streaming.compareAndSet(false, true)) {
+                                responseCache.recordBypass("too-large");
+                                headers.set(CACHE_STATUS_HEADER, "BYPASS");
+                            }
+                            return notModified ? release(buffers) : Flux.fromIterable(buffers);
+                        }
+                        
+                        byte[] bytes = toBytes(buffers);
+                        headers.set(CACHE_STATUS_HEADER, store(headers, bytes, freshness.get()) ? "MISS" : "BYPASS");
+                        return notModified ? Flux.<DataBuffer>empty() : Flux.just(bufferFactory().wrap(bytes));
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return super.writeWith(relayed);
+        }
+        
+        /**
+         * Lo que se puede saber con las cabeceras, antes de leer el cuerpo: vacío si no se va a guardar.
+         */
+        private Optional<Duration> freshness(HttpHeaders responseHeaders) {
+            if (responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+                responseCache.recordBypass("set-cookie");
+                return Optional.empty();
+            }
+            if (responseHeaders.getContentLength() > responseCache.maxEntryBytes()) {
+                responseCache.recordBypass("too-large");
+                return Optional.empty();
+            }
+            Optional<Duration> freshness = CacheControlDirectives.of(responseHeaders).sharedFreshness(routeTtl);
+            if (freshness.isEmpty()) {
+                responseCache.recordBypass("response-not-cacheable");
+            }
+            return freshness;
+        }
+        
+        private boolean store(HttpHeaders responseHeaders, byte[] bytes, Duration freshness) {
+            HttpHeaders stored = new HttpHeaders();
+            responseHeaders.forEach((name, values) -> {
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (!NON_CACHEABLE_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                    stored.put(name, values);
+                }
+            });
+            long now = System.currentTimeMillis();
+            return responseCache.store(primaryKey, requestHeaders,
+                    new CachedResponse(HttpHeaders.readOnlyHttpHeaders(stored), bytes, now, now + freshness.toMillis()));
+        }
+        
+        private Mono<Void> discard(Publisher<? extends DataBuffer> body) {
+            return Flux.from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.defer(() -> super.writeWith(Flux.empty())));
+        }
+        
+        private static Flux<DataBuffer> release(List<DataBuffer> buffers) {
+            buffers.forEach(DataBufferUtils::release);
+            return Flux.empty();
+        }
+        
+        private static byte[] toBytes(List<DataBuffer> buffers) {
+            int length = 0;
+            for (DataBuffer buffer : buffers) {
+                length += buffer.readableByteCount();
+            }
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int count = buffer.readableByteCount();
+                buffer.read(bytes, offset, count);
+                offset += count;
+                DataBufferUtils.release(buffer);
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.bitcrack.luchoexpress.api_gateway.coalescing;
+
+import com.bitcrack.luchoexpress.api_gateway.security.InternalIdentityHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight para GETs idénticos en curso: la primera petición (líder) va al backend y las que llegan
+ * mientras tanto con la misma clave esperan su respuesta y la reciben copiada, sin generar más tráfico upstream.
+ * <p>
+ * Se activa por ruta con {@code metadata.request-coalescing}: {@code public} agrupa solo por método, path y query
+ * (respuestas iguales para todos) y {@code user} añade la identidad del llamante, para endpoints cuya respuesta
+ * depende de quién pregunta. Si el líder falla o su respuesta es streaming, cada seguidor hace su propia petición.
+ * <p>
+ * El líder solo acumula hasta gateway.request-coalescing.max-body-size: una respuesta mayor se reenvía en streaming
+ * a su cliente y los seguidores vuelven a pedirla por su cuenta.
+ */
+@Component
+public class RequestCoalescingGlobalFilter implements GlobalFilter, Ordered {
+    
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescingGlobalFilter.class);
+    
+    public static final String SCOPE_METADATA_KEY = "request-coalescing";
+    
+    // Después de la cache de respuestas (un acierto no necesita agruparse) y antes de escribir la respuesta
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    
+    // Las cabeceras CORS las calcula el gateway para cada petición; las hop-by-hop no se copian
+    private static final Set<String> NON_SHARED_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade", "date");
+    
+    enum Scope { PUBLIC, USER }
+    
+    record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {}
+    
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration followerTimeout;
+    private final long maxBodyBytes;
+    
+    public RequestCoalescingGlobalFilter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.request-coalescing.enabled:true}") boolean enabled,
+            @Value("${gateway.request-coalescing.follower-timeout:10s}") Duration followerTimeout,
+            @Value("${gateway.request-coalescing.max-body-size:1MB}") DataSize maxBodySize) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.followerTimeout = followerTimeout;
+        this.maxBodyBytes = maxBodySize.toBytes();
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Optional<Scope> scope = scope(route);
+        if (!enabled || scope.isEmpty() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        
+        String key = key(exchange.getRequest(), scope.get());
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, sink);
+        
+        if (existing != null) {
+            count(route, "follower");
+            return existing.asMono()
+                    .timeout(followerTimeout)
+                    .map(Optional::of)
+                    .onErrorReturn(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isPresent()) {
+                            return writeShared(exchange.getResponse(), shared.get());
+                        }
+                        count(route, "fallback");
+                        return chain.filter(exchange);
+                    });
+        }
+        
+        count(route, "leader");
+        LeaderResponseDecorator leaderResponse = new LeaderResponseDecorator(exchange.getResponse(), key, sink);
+        return chain.filter(exchange.mutate().response(leaderResponse).build())
+                .doFinally(signal -> leaderResponse.abandon(signal.toString()));
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+    
+    private static Optional<Scope> scope(Route route) {
+        if (route == null) {
+            return Optional.empty();
+        }
+        Object value = route.getMetadata().get(SCOPE_METADATA_KEY);
+        if (value == null) {
+            return Optional.empty();
+        }
+        return switch (value.toString().trim().toLowerCase(Locale.ROOT)) {
+            case "public" -> Optional.of(Scope.PUBLIC);
+            case "user" -> Optional.of(Scope.USER);
+            default -> Optional.empty();
+        };
+    }
+    
+    /**
+     * Path + query + cabeceras que cambian la respuesta (Accept, condicionales) y, con scope user, la identidad:
+     * la verificada por JwtRelayGlobalFilter si la hay, o un hash del Authorization tal cual llegó.
+     */
+    static String key(ServerHttpRequest request, Scope scope) {
+        HttpHeaders headers = request.getHeaders();
+        StringBuilder key = new StringBuilder("GET ").append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        key.append("\naccept=").append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)));
+        key.append("\naccept-encoding=").append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)));
+        key.append("\nif-none-match=").append(String.join(",", headers.getOrEmpty(HttpHeaders.IF_NONE_MATCH)));
+        key.append("\nif-modified-since=").append(String.join(",", headers.getOrEmpty(HttpHeaders.IF_MODIFIED_SINCE)));
+        
+        if (scope == Scope.USER) {
+            String userId = headers.getFirst(InternalIdentityHeaders.USER_ID);
+            if (userId != null) {
+                key.append("\nuser=").append(userId)
+                        .append('|').append(headers.getFirst(InternalIdentityHeaders.ROLES));
+            } else {
+                String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+                key.append("\nauthorization=").append(authorization == null ? "" : sha256(authorization));
+            }
+        }
+        return key.toString();
+    }
+    
+    private Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        shared.headers().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!lower.startsWith("access-control-") && !headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.setContentLength(shared.body().length);
+        if (shared.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+    
+    private void count(Route route, String role) {
+        Counter.builder("gateway.request.coalescing")
+                .description("Coalescable GET requests by role: leader (went upstream), follower (waited), fallback")
+                .tag("route", route.getId())
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Captura la respuesta del líder, la publica a los seguidores y la escribe a su propio cliente.
+     */
+    private final class LeaderResponseDecorator extends ServerHttpResponseDecorator {
+        
+        private final String key;
+        private final Sinks.One<SharedResponse> sink;
+        
+        LeaderResponseDecorator(ServerHttpResponse delegate, String key, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.sink = sink;
+        }
+        
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getHeaders().getContentLength() > maxBodyBytes) {
+                abandon("response larger than max-body-size");
+                return super.writeWith(body);
+            }
+            
+            // Se acumula hasta max-body-size; si el cuerpo lo supera se reenvía lo acumulado y el resto en streaming
+            AtomicLong size = new AtomicLong();
+            AtomicBoolean streaming = new AtomicBoolean();
+            Flux<DataBuffer> relayed = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodyBytes)
+                    .defaultIfEmpty(List.of())
+                    .concatMap(buffers -> {
+                        if (size.get() > maxBodyBytes) {
+                            if (streaming.compareAndSet(false, true)) {
+                                abandon("response larger than max-body-size");
+                            }
+                            return Flux.fromIterable(buffers);
+                        }
+                        
+                        byte[] bytes = new byte[size.intValue()];
+                        int offset = 0;
+                        for (DataBuffer buffer : buffers) {
+                            int count = buffer.readableByteCount();
+                            buffer.read(bytes, offset, count);
+                            offset += count;
+                            DataBufferUtils.release(buffer);
+                        }
+                        publish(bytes);
+                        return Flux.just(bufferFactory().wrap(bytes));
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return super.writeWith(relayed);
+        }
+        
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Respuestas en streaming: no se comparten, cada seguidor hará su propia petición
+            abandon("streaming response");
+            return super.writeAndFlushWith(body);
+        }
+        
+        @Override
+        public Mono<Void> setComplete() {
+            publish(new byte[0]);
+            return super.setComplete();
+        }
+        
+        private void publish(byte[] bytes) {
+            // Se libera la clave antes de escribir: una petición posterior ya no debe recibir esta respuesta
+            inFlight.remove(key, sink);
+            HttpStatusCode status = getStatusCode();
+            if (status == null) {
+                sink.tryEmitError(new IllegalStateException("Leader response has no status"));
+                return;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!NON_SHARED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, values);
+                }
+            });
+            sink.tryEmitValue(new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+        }
+        
+        /**
+         * Si el líder termina sin haber publicado (error, cancelación, streaming), los seguidores hacen su propia petición.
+         */
+        void abandon(String reason) {
+            if (inFlight.remove(key, sink)) {
+                log.debug("Coalesced request {} abandoned by its leader: {}", key, reason);
+            }
+            sink.tryEmitError(new IllegalStateException("Leader did not produce a shareable response: " + reason));
+        }
+    }
+}
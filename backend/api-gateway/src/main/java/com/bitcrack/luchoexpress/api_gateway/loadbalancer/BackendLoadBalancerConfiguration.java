@@ -0,0 +1,40 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuración de cada cliente lb://&lt;servicio&gt;; Spring Cloud LoadBalancer crea un contexto hijo por servicio.
+ * Sin @Configuration a propósito: no debe entrar en el component scan del gateway, solo en
+ * {@link LoadBalancerClientsConfig}.
+ */
+public class BackendLoadBalancerConfiguration {
+
+    /**
+     * Instancias declaradas en spring.cloud.discovery.client.simple.instances, filtradas por health check activo
+     * (spring.cloud.loadbalancer.health-check.*): una instancia caída deja de recibir tráfico hasta que vuelve a responder.
+     */
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withHealthChecks()
+                .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   InstanceLoadTracker instanceLoadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PowerOfTwoChoicesLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                instanceLoadTracker,
+                serviceId);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Peticiones en curso y latencia por instancia de backend.
+ * El balanceador lo consulta para elegir la instancia menos cargada; lo alimenta el OutstandingRequestsGlobalFilter.
+ * Métricas: gateway.loadbalancer.outstanding{service, instance} y gateway.loadbalancer.request{service, instance, outcome}.
+ */
+@Component
+public class InstanceLoadTracker {
+
+    private final Map<String, AtomicInteger> outstandingByInstance = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public InstanceLoadTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static String instanceKey(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        AtomicInteger outstanding = outstandingByInstance.get(key(instance));
+        return outstanding != null ? outstanding.get() : 0;
+    }
+
+    public void started(ServiceInstance instance) {
+        outstandingByInstance.computeIfAbsent(key(instance), k -> registerGauge(instance)).incrementAndGet();
+    }
+
+    /**
+     * @param outcome SUCCESS, CLIENT_ERROR, SERVER_ERROR, ERROR o CANCELLED
+     */
+    public void completed(ServiceInstance instance, Duration latency, String outcome) {
+        AtomicInteger outstanding = outstandingByInstance.get(key(instance));
+        if (outstanding != null) {
+            outstanding.decrementAndGet();
+        }
+        timer(instance, outcome).record(latency);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instanceKey(instance);
+    }
+
+    private AtomicInteger registerGauge(ServiceInstance instance) {
+        AtomicInteger outstanding = new AtomicInteger();
+        Gauge.builder("gateway.loadbalancer.outstanding", outstanding, AtomicInteger::get)
+                .description("Requests currently in flight to a backend instance")
+                .tag("service", instance.getServiceId())
+                .tag("instance", instanceKey(instance))
+                .register(meterRegistry);
+        return outstanding;
+    }
+
+    private Timer timer(ServiceInstance instance, String outcome) {
+        return timers.computeIfAbsent(key(instance) + "#" + outcome, k -> Timer.builder("gateway.loadbalancer.request")
+                .description("Latency of requests routed to a backend instance")
+                .tag("service", instance.getServiceId())
+                .tag("instance", instanceKey(instance))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,12 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Aplica {@link BackendLoadBalancerConfiguration} a todos los servicios enrutados con lb://.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = BackendLoadBalancerConfiguration.class)
+public class LoadBalancerClientsConfig {
+}
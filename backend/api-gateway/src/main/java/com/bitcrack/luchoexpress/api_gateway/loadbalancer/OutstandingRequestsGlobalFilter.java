@@ -0,0 +1,67 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+/**
+ * Cuenta las peticiones en curso de cada instancia elegida por el balanceador y mide su latencia.
+ * Se hace con un filtro (y no con un LoadBalancerLifecycle) para descontar también las peticiones canceladas
+ * por el CircuitBreaker o por el cliente, que de otro modo dejarían la instancia marcada como ocupada.
+ */
+@Component
+public class OutstandingRequestsGlobalFilter implements GlobalFilter, Ordered {
+
+    // Justo después de que ReactiveLoadBalancerClientFilter haya elegido la instancia
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    private final InstanceLoadTracker instanceLoadTracker;
+
+    public OutstandingRequestsGlobalFilter(InstanceLoadTracker instanceLoadTracker) {
+        this.instanceLoadTracker = instanceLoadTracker;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+        instanceLoadTracker.started(instance);
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> instanceLoadTracker.completed(
+                instance, Duration.ofNanos(System.nanoTime() - start), outcome(signal, exchange)));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static String outcome(SignalType signal, ServerWebExchange exchange) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return "ERROR";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || status.is2xxSuccessful() || status.is3xxRedirection()) {
+            return "SUCCESS";
+        }
+        return status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+}
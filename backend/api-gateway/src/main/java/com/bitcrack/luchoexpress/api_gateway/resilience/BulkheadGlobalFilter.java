@@ -0,0 +1,97 @@
+package com.bitcrack.luchoexpress.api_gateway.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead por ruta: como máximo {@code metadata.max-concurrent-requests} peticiones en curso hacia el backend.
+ * Las que exceden el límite se rechazan al instante con 503, así un backend lento no acapara las conexiones
+ * del gateway ni degrada al resto de rutas.
+ * <p>
+ * Va después de la cache y del coalescing: los aciertos y los seguidores no ocupan plaza.
+ * Métricas: gateway.bulkhead.active{route} y gateway.bulkhead.rejected{route}.
+ */
+@Component
+public class BulkheadGlobalFilter implements GlobalFilter, Ordered {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkheadGlobalFilter.class);
+    
+    public static final String MAX_CONCURRENT_METADATA_KEY = "max-concurrent-requests";
+    
+    // Después de NettyWriteResponseFilter (-1) y antes de los filtros de ruta (CircuitBreaker) y del enrutado
+    public static final int ORDER = 0;
+    
+    private final Map<String, AtomicInteger> activeByRoute = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    
+    public BulkheadGlobalFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Object limit = route != null ? route.getMetadata().get(MAX_CONCURRENT_METADATA_KEY) : null;
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+        
+        int maxConcurrent = Integer.parseInt(limit.toString().trim());
+        AtomicInteger active = activeByRoute.computeIfAbsent(route.getId(), this::registerGauge);
+        if (active.incrementAndGet() > maxConcurrent) {
+            active.decrementAndGet();
+            Counter.builder("gateway.bulkhead.rejected")
+                    .description("Requests rejected because the route reached its max concurrent requests")
+                    .tag("route", route.getId())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Bulkhead full for route {} ({} concurrent requests), rejecting {}",
+                    route.getId(), maxConcurrent, exchange.getRequest().getPath());
+            return reject(exchange.getResponse(), route.getId());
+        }
+        
+        return chain.filter(exchange).doFinally(signal -> active.decrementAndGet());
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+    
+    private AtomicInteger registerGauge(String routeId) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("gateway.bulkhead.active", active, AtomicInteger::get)
+                .description("Requests currently in flight to the route's backend")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return active;
+    }
+    
+    private static Mono<Void> reject(ServerHttpResponse response, String routeId) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set("Retry-After", "1");
+        byte[] body = ("{\"error\":\"Service Unavailable\",\"message\":\"Too many concurrent requests to " + routeId + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.bitcrack.luchoexpress.api_gateway.resilience;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Destino de los fallbackUri de los CircuitBreaker de cada ruta: responde 503 de inmediato
+ * cuando el circuito está abierto o el backend no contestó a tiempo, sin esperar a ningún backend.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+    
+    @RequestMapping("/{service}")
+    public ResponseEntity<Map<String, String>> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", "Service Unavailable");
+        body.put("message", service + " is temporarily unavailable, please retry later");
+        if (cause != null) {
+            body.put("reason", cause.getClass().getSimpleName());
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(body);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cabeceras con la identidad ya verificada que el gateway envía a los microservicios.
+ * La firma es un HMAC-SHA256 con el secreto interno compartido sobre los valores y el instante de emisión,
+ * de modo que un servicio en modo "trust" puede aceptarlas sin volver a verificar el JWT.
+ */
+public final class InternalIdentityHeaders {
+    
+    public static final String USER_ID = "X-Auth-User-Id";
+    public static final String USERNAME = "X-Auth-Username";
+    public static final String ROLES = "X-Auth-Roles";
+    public static final String ISSUED_AT = "X-Auth-Issued-At";
+    public static final String SIGNATURE = "X-Auth-Signature";
+    
+    // Nunca se aceptan del cliente: el gateway las elimina siempre antes de (re)emitirlas
+    public static final List<String> ALL = List.of(USER_ID, USERNAME, ROLES, ISSUED_AT, SIGNATURE);
+    
+    private InternalIdentityHeaders() {
+    }
+    
+    /**
+     * Debe producir exactamente lo mismo que el InternalIdentityVerifier de ms-order, ms-products y
+     * ms-tracking-orders (copias del mismo código). InternalIdentityHeadersTest y los InternalIdentityVerifierTest
+     * de esos servicios comparten un vector de prueba para detectar cualquier divergencia.
+     * @return HMAC-SHA256 de {@link #canonicalPayload} en Base64 URL sin padding
+     */
+    public static String sign(byte[] secret, String userId, String username, String roles, long issuedAt) {
+        String payload = canonicalPayload(userId, username, roles, issuedAt);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+    
+    /**
+     * Formato canónico firmado: userId, username, roles (separados por comas, igual que la cabecera) e issued-at
+     * en ms desde epoch, unidos por '\n'. Los valores van en las cabeceras tal cual, sin normalizar.
+     */
+    static String canonicalPayload(String userId, String username, String roles, long issuedAt) {
+        return userId + "\n" + username + "\n" + roles + "\n" + issuedAt;
+    }
+}
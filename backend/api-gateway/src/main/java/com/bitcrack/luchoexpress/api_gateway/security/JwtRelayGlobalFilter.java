@@ -0,0 +1,78 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Verifica el JWT una vez en el borde y reenvía la identidad como cabeceras internas firmadas.
+ * <p>
+ * Las cabeceras X-Auth-* que envíe el cliente se eliminan siempre. Si el token no es válido la petición
+ * sigue sin identidad (y con su Authorization original): cada servicio decide si el endpoint es público.
+ * El Authorization se mantiene para los servicios que todavía verifican el JWT por su cuenta.
+ */
+@Component
+public class JwtRelayGlobalFilter implements GlobalFilter, Ordered {
+    
+    // Antes que cualquier otro filtro, para que ninguno vea cabeceras de identidad puestas por el cliente
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final JwtVerifier jwtVerifier;
+    private final byte[] internalSecret;
+    
+    public JwtRelayGlobalFilter(
+            JwtVerifier jwtVerifier,
+            @Value("${internal-auth.secret}") String internalSecret) {
+        this.jwtVerifier = jwtVerifier;
+        this.internalSecret = internalSecret.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Optional<JwtVerifier.VerifiedIdentity> identity = extractToken(request).flatMap(jwtVerifier::verify);
+        
+        ServerHttpRequest relayed = request.mutate()
+                .headers(headers -> {
+                    InternalIdentityHeaders.ALL.forEach(headers::remove);
+                    identity.ifPresent(id -> addIdentityHeaders(headers, id));
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(relayed).build());
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+    
+    private void addIdentityHeaders(HttpHeaders headers, JwtVerifier.VerifiedIdentity identity) {
+        long issuedAt = System.currentTimeMillis();
+        String username = identity.username() != null ? identity.username() : "";
+        headers.set(InternalIdentityHeaders.USER_ID, identity.userId());
+        headers.set(InternalIdentityHeaders.USERNAME, username);
+        headers.set(InternalIdentityHeaders.ROLES, identity.roles());
+        headers.set(InternalIdentityHeaders.ISSUED_AT, Long.toString(issuedAt));
+        headers.set(InternalIdentityHeaders.SIGNATURE, InternalIdentityHeaders.sign(
+                internalSecret, identity.userId(), username, identity.roles(), issuedAt));
+    }
+    
+    private static Optional<String> extractToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        return Optional.of(authorization.substring(BEARER_PREFIX.length()));
+    }
+}
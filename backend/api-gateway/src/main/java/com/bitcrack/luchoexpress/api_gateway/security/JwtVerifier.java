@@ -0,0 +1,131 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica el JWT (HS512, mismo secreto que ms-auth) una sola vez por token, con las claves de {@link JwtKeyHolder}
+ * (jwt.secret-file y jwt.rotation.grace-period, igual que los servicios).
+ * Los tokens válidos se guardan indexados por su SHA-256 hasta su "exp"; los inválidos no se cachean.
+ * Cada rotación vacía la cache, y mientras dura el periodo de gracia ninguna entrada vive más allá de su fin:
+ * así un token de la clave retirada deja de aceptarse en el borde en el mismo momento que en los servicios.
+ */
+@Component
+public class JwtVerifier {
+    
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+    
+    /**
+     * Identidad extraída de un token válido. roles va separado por comas.
+     */
+    public record VerifiedIdentity(String userId, String username, String roles, long expiresAtMillis) {}
+    
+    private final JwtKeyHolder keyHolder;
+    private final Duration gracePeriod;
+    private final Cache<String, VerifiedIdentity> verifiedTokens;
+    // Fin del periodo de gracia de la última rotación: hasta entonces puede haber entradas firmadas con la clave anterior
+    private volatile long previousKeyRetiresAtMillis = Long.MIN_VALUE;
+    
+    public JwtVerifier(
+            JwtKeyHolder keyHolder,
+            @Value("${jwt.rotation.grace-period:24h}") Duration gracePeriod,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.keyHolder = keyHolder;
+        this.gracePeriod = gracePeriod;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedIdentity>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedIdentity identity, long currentTime) {
+                        long now = System.currentTimeMillis();
+                        long expiresAt = identity.expiresAtMillis();
+                        if (previousKeyRetiresAtMillis > now) {
+                            expiresAt = Math.min(expiresAt, previousKeyRetiresAtMillis);
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(expiresAt - now, 0));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedIdentity identity, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, VerifiedIdentity identity, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        keyHolder.onRotation(this::onKeyRotated);
+    }
+    
+    /**
+     * @return la identidad del token, o vacío si la firma no es válida, está expirado o le faltan claims
+     */
+    public Optional<VerifiedIdentity> verify(String token) {
+        String tokenHash = hash(token);
+        VerifiedIdentity cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        try {
+            Claims claims = keyHolder.parseClaims(token);
+            String userId = claims.get("userId", String.class);
+            String roles = extractRoles(claims);
+            if (userId == null || roles.isEmpty() || claims.getExpiration() == null) {
+                log.debug("JWT without userId, role or exp claims; not forwarding identity");
+                return Optional.empty();
+            }
+            
+            VerifiedIdentity identity = new VerifiedIdentity(userId, claims.getSubject(), roles,
+                    claims.getExpiration().getTime());
+            verifiedTokens.put(tokenHash, identity);
+            return Optional.of(identity);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT at the gateway: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private void onKeyRotated() {
+        // Primero el nuevo límite y después el vaciado: lo que se cachee a partir de aquí ya queda acotado
+        previousKeyRetiresAtMillis = System.currentTimeMillis() + gracePeriod.toMillis();
+        verifiedTokens.invalidateAll();
+        log.info("JWT key rotated; verified-token cache cleared");
+    }
+    
+    private static String extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> list) {
+            return String.join(",", list.stream().map(String::valueOf).toList());
+        }
+        String role = claims.get("role", String.class);
+        return role != null ? role : "";
+    }
+    
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
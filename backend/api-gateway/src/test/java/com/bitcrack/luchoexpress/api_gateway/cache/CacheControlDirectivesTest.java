@@ -0,0 +1,73 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheControlDirectivesTest {
+
+    private static final Duration ROUTE_TTL = Duration.ofSeconds(60);
+
+    @Test
+    void shouldParseDirectivesCaseInsensitiveWithQuotedValues() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CACHE_CONTROL, "Public, S-MaxAge=\"30\"");
+        headers.add(HttpHeaders.CACHE_CONTROL, " max-age=10 ,, must-revalidate");
+
+        // When
+        CacheControlDirectives directives = CacheControlDirectives.of(headers);
+
+        // Then
+        assertTrue(directives.has("public"));
+        assertTrue(directives.has("must-revalidate"));
+        assertEquals(Optional.of(Duration.ofSeconds(30)), directives.seconds("s-maxage"));
+        assertEquals(Optional.of(Duration.ofSeconds(10)), directives.seconds("max-age"));
+        assertEquals(Optional.empty(), directives.seconds("public"));
+    }
+
+    @Test
+    void shouldTreatPragmaNoCacheAsNoCache() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.PRAGMA, "no-cache");
+
+        assertTrue(CacheControlDirectives.of(headers).has("no-cache"));
+    }
+
+    @Test
+    void shouldPreferSharedMaxAgeBoundedByRouteTtl() {
+        assertEquals(Optional.of(Duration.ofSeconds(30)), freshness("s-maxage=30, max-age=5"));
+        assertEquals(Optional.of(Duration.ofSeconds(20)), freshness("max-age=0, s-maxage=20"));
+        assertEquals(Optional.of(ROUTE_TTL), freshness("s-maxage=600"));
+        assertEquals(Optional.of(Duration.ofSeconds(5)), freshness("max-age=5"));
+        assertEquals(Optional.of(ROUTE_TTL), freshness("max-age=3600"));
+    }
+
+    @Test
+    void shouldUseRouteTtlWithoutDirectivesOrWithInvalidValues() {
+        assertEquals(Optional.of(ROUTE_TTL), freshness(null));
+        assertEquals(Optional.of(ROUTE_TTL), freshness("public"));
+        assertEquals(Optional.of(ROUTE_TTL), freshness("max-age=soon"));
+    }
+
+    @Test
+    void shouldNotStorePrivateNoStoreNoCacheOrExpiredResponses() {
+        assertEquals(Optional.empty(), freshness("private, s-maxage=30"));
+        assertEquals(Optional.empty(), freshness("no-store"));
+        assertEquals(Optional.empty(), freshness("no-cache"));
+        assertEquals(Optional.empty(), freshness("max-age=0"));
+        assertEquals(Optional.empty(), freshness("s-maxage=0, max-age=30"));
+    }
+
+    private static Optional<Duration> freshness(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) {
+            headers.add(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return CacheControlDirectives.of(headers).sharedFreshness(ROUTE_TTL);
+    }
+}
@@ -0,0 +1,221 @@
+package com.bitcrack.luchoexpress.api_gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGlobalFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCacheGlobalFilter filter = new ResponseCacheGlobalFilter(
+            new ResponseCache(DataSize.ofMegabytes(1), DataSize.ofBytes(16), meterRegistry), true);
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private final AtomicReference<HttpHeaders> forwardedHeaders = new AtomicReference<>();
+
+    @Test
+    void shouldMatchEtags() {
+        assertTrue(ResponseCacheGlobalFilter.etagMatches("\"v1\"", "\"v1\""));
+        assertTrue(ResponseCacheGlobalFilter.etagMatches("W/\"v1\"", "\"v1\""));
+        assertTrue(ResponseCacheGlobalFilter.etagMatches("\"v1\"", "W/\"v1\""));
+        assertTrue(ResponseCacheGlobalFilter.etagMatches("\"v0\", \"v1\"", "\"v1\""));
+        assertTrue(ResponseCacheGlobalFilter.etagMatches("*", "\"v1\""));
+        assertFalse(ResponseCacheGlobalFilter.etagMatches("\"v2\"", "\"v1\""));
+        assertFalse(ResponseCacheGlobalFilter.etagMatches(null, "\"v1\""));
+        assertFalse(ResponseCacheGlobalFilter.etagMatches("\"v1\"", null));
+    }
+
+    @Test
+    void shouldServeSecondRequestFromCache() {
+        // Given
+        GatewayFilterChain backend = backend(headers -> headers.setETag("\"v1\""), "products");
+
+        // When
+        MockServerHttpResponse first = run(get().build(), 60, backend);
+        MockServerHttpResponse second = run(get().build(), 60, backend);
+
+        // Then
+        assertEquals("MISS", first.getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getHeaders().getFirst("X-Cache"));
+        assertEquals("products", second.getBodyAsString().block(TIMEOUT));
+        assertEquals("0", second.getHeaders().getFirst(HttpHeaders.AGE));
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedOnMissAndStoreFullBody() {
+        // Given
+        GatewayFilterChain backend = backend(headers -> headers.setETag("\"v1\""), "products");
+
+        // When
+        MockServerHttpResponse conditionalMiss = run(get().ifNoneMatch("\"v1\"").build(), 60, backend);
+        MockServerHttpResponse conditionalHit = run(get().ifNoneMatch("W/\"v1\"").build(), 60, backend);
+        MockServerHttpResponse plainHit = run(get().build(), 60, backend);
+
+        // Then: el backend recibe la petición sin condición y el cuerpo queda guardado
+        assertNull(forwardedHeaders.get().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalMiss.getStatusCode());
+        assertEquals("", conditionalMiss.getBodyAsString().defaultIfEmpty("").block(TIMEOUT));
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalHit.getStatusCode());
+        assertEquals("products", plainHit.getBodyAsString().block(TIMEOUT));
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void shouldBypassNonGetRoutesWithoutTtlAndRequestNoStore() {
+        // Given
+        GatewayFilterChain backend = backend(headers -> { }, "products");
+
+        // When
+        MockServerHttpResponse post = run(MockServerHttpRequest.post("/api/products").build(), 60, backend);
+        MockServerHttpResponse noTtl = run(get().build(), null, backend);
+        MockServerHttpResponse noStore = run(get().header(HttpHeaders.CACHE_CONTROL, "no-store").build(), 60, backend);
+        run(get().build(), null, backend);
+
+        // Then: ninguna pasa por la cache ni guarda nada
+        assertNull(post.getHeaders().getFirst("X-Cache"));
+        assertNull(noTtl.getHeaders().getFirst("X-Cache"));
+        assertNull(noStore.getHeaders().getFirst("X-Cache"));
+        assertEquals(4, backendCalls.get());
+    }
+
+    @Test
+    void shouldSkipLookupButStoreOnRequestNoCache() {
+        // Given
+        GatewayFilterChain backend = backend(headers -> { }, "products");
+        run(get().build(), 60, backend);
+
+        // When
+        MockServerHttpResponse refreshed = run(get().header(HttpHeaders.CACHE_CONTROL, "no-cache").build(), 60, backend);
+        MockServerHttpResponse cached = run(get().build(), 60, backend);
+
+        // Then
+        assertEquals("MISS", refreshed.getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", cached.getHeaders().getFirst("X-Cache"));
+        assertEquals(2, backendCalls.get());
+    }
+
+    @Test
+    void shouldNotStoreSetCookiePrivateOrVaryStarResponses() {
+        for (Consumer<HttpHeaders> headers : List.<Consumer<HttpHeaders>>of(
+                h -> h.add(HttpHeaders.SET_COOKIE, "session=1"),
+                h -> h.setCacheControl("private, max-age=60"),
+                h -> h.setVary(List.of("*")))) {
+            // Given
+            backendCalls.set(0);
+            GatewayFilterChain backend = backend(headers, "products");
+
+            // When
+            MockServerHttpResponse first = run(get().build(), 60, backend);
+            MockServerHttpResponse second = run(get().build(), 60, backend);
+
+            // Then
+            assertEquals("BYPASS", first.getHeaders().getFirst("X-Cache"));
+            assertEquals("products", second.getBodyAsString().block(TIMEOUT));
+            assertEquals(2, backendCalls.get());
+        }
+    }
+
+    @Test
+    void shouldStreamBodiesLargerThanMaxEntrySizeWithoutBufferingThem() {
+        // Given: cuerpo sin Content-Length que va llegando por partes
+        Sinks.Many<String> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        MockServerWebExchange exchange = exchange(get().build(), 60);
+        List<String> written = new ArrayList<>();
+
+        // When: el backend ha enviado 20 bytes (> 16) pero todavía no ha terminado
+        filter.filter(exchange, backend(headers -> { }, chunks.asFlux())).subscribe();
+        chunks.tryEmitNext("0123456789");
+        chunks.tryEmitNext("0123456789");
+        exchange.getResponse().getBody().map(ResponseCacheGlobalFilterTest::toString).subscribe(written::add);
+
+        // Then: lo acumulado ya se ha reenviado al cliente
+        assertEquals(List.of("0123456789", "0123456789"), written);
+        assertEquals("BYPASS", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+
+        chunks.tryEmitNext("tail");
+        chunks.tryEmitComplete();
+        assertEquals(List.of("0123456789", "0123456789", "tail"), written);
+        assertEquals(1.0, meterRegistry.get("gateway.response.cache.bypass").tag("reason", "too-large").counter().count());
+    }
+
+    @Test
+    void shouldNotBufferWhenContentLengthExceedsMaxEntrySize() {
+        // Given
+        GatewayFilterChain backend = backend(headers -> headers.setContentLength(20), "01234567890123456789");
+
+        // When
+        MockServerHttpResponse first = run(get().build(), 60, backend);
+        run(get().build(), 60, backend);
+
+        // Then
+        assertEquals("BYPASS", first.getHeaders().getFirst("X-Cache"));
+        assertEquals("01234567890123456789", first.getBodyAsString().block(TIMEOUT));
+        assertEquals(2, backendCalls.get());
+    }
+
+    private MockServerHttpResponse run(MockServerHttpRequest request, Integer ttlSeconds, GatewayFilterChain backend) {
+        MockServerWebExchange exchange = exchange(request, ttlSeconds);
+        filter.filter(exchange, backend).block(TIMEOUT);
+        return exchange.getResponse();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request, Integer ttlSeconds) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route.AsyncBuilder route = Route.async().id("products").uri("http://localhost:8085").predicate(e -> true);
+        if (ttlSeconds != null) {
+            route.metadata(ResponseCacheGlobalFilter.TTL_METADATA_KEY, ttlSeconds);
+        }
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route.build());
+        return exchange;
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> get() {
+        return MockServerHttpRequest.get("/api/products?page=0");
+    }
+
+    private GatewayFilterChain backend(Consumer<HttpHeaders> responseHeaders, String body) {
+        return backend(responseHeaders, Flux.just(body));
+    }
+
+    private GatewayFilterChain backend(Consumer<HttpHeaders> responseHeaders, Flux<String> body) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            forwardedHeaders.set(exchange.getRequest().getHeaders());
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            responseHeaders.accept(response.getHeaders());
+            return response.writeWith(body.map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static String toString(DataBuffer buffer) {
+        String value = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return value;
+    }
+}
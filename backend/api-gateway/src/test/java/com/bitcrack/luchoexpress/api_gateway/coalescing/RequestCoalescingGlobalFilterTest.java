@@ -0,0 +1,209 @@
+package com.bitcrack.luchoexpress.api_gateway.coalescing;
+
+import com.bitcrack.luchoexpress.api_gateway.security.InternalIdentityHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescingGlobalFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescingGlobalFilter filter = new RequestCoalescingGlobalFilter(
+            meterRegistry, true, Duration.ofMillis(300), DataSize.ofBytes(16));
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void shouldSeparateUsersAndRolesInUserScope() {
+        String ana = key(user("ana-id", "USER"), RequestCoalescingGlobalFilter.Scope.USER);
+
+        assertEquals(ana, key(user("ana-id", "USER"), RequestCoalescingGlobalFilter.Scope.USER));
+        assertNotEquals(ana, key(user("luis-id", "USER"), RequestCoalescingGlobalFilter.Scope.USER));
+        assertNotEquals(ana, key(user("ana-id", "ADMIN"), RequestCoalescingGlobalFilter.Scope.USER));
+        // Sin identidad verificada se agrupa por el Authorization recibido
+        assertNotEquals(key(bearer("token-a"), RequestCoalescingGlobalFilter.Scope.USER),
+                key(bearer("token-b"), RequestCoalescingGlobalFilter.Scope.USER));
+    }
+
+    @Test
+    void shouldIgnoreIdentityInPublicScopeButNotQueryOrAccept() {
+        String anonymous = key(MockServerHttpRequest.get("/api/products?page=0"), RequestCoalescingGlobalFilter.Scope.PUBLIC);
+
+        assertEquals(anonymous, key(user("ana-id", "USER"), RequestCoalescingGlobalFilter.Scope.PUBLIC));
+        assertEquals(anonymous, key(bearer("token-a"), RequestCoalescingGlobalFilter.Scope.PUBLIC));
+        assertNotEquals(anonymous, key(MockServerHttpRequest.get("/api/products?page=1"), RequestCoalescingGlobalFilter.Scope.PUBLIC));
+        assertNotEquals(anonymous, key(MockServerHttpRequest.get("/api/products?page=0").header(HttpHeaders.ACCEPT, "text/csv"),
+                RequestCoalescingGlobalFilter.Scope.PUBLIC));
+    }
+
+    @Test
+    void shouldShareLeaderResponseWithFollowers() {
+        // Given: el líder está esperando al backend
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain backend = backend(release.asMono(), "products");
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+
+        // When
+        Mono<Void> leaderDone = filter.filter(leader, backend).cache();
+        leaderDone.subscribe();
+        Mono<Void> followerDone = filter.filter(follower, backend).cache();
+        followerDone.subscribe();
+        release.tryEmitEmpty();
+        leaderDone.block(TIMEOUT);
+        followerDone.block(TIMEOUT);
+
+        // Then
+        assertEquals(1, backendCalls.get());
+        assertEquals("products", follower.getResponse().getBodyAsString().block(TIMEOUT));
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.request.coalescing").tag("role", "follower").counter().count());
+    }
+
+    @Test
+    void shouldLetFollowersFallBackWhenLeaderFails() {
+        // Given
+        Sinks.Empty<Void> release = Sinks.empty();
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain backend = exchange -> calls.incrementAndGet() == 1
+                ? release.asMono().then(Mono.error(new IllegalStateException("connection reset")))
+                : write(exchange.getResponse(), "products");
+        MockServerWebExchange follower = exchange();
+
+        // When
+        Mono<Void> leaderDone = filter.filter(exchange(), backend).cache();
+        leaderDone.subscribe(v -> { }, e -> { });
+        Mono<Void> followerDone = filter.filter(follower, backend).cache();
+        followerDone.subscribe();
+        release.tryEmitEmpty();
+        followerDone.block(TIMEOUT);
+
+        // Then: el seguidor hizo su propia petición sin esperar al timeout
+        assertThrows(IllegalStateException.class, () -> leaderDone.block(TIMEOUT));
+        assertEquals(2, calls.get());
+        assertEquals("products", follower.getResponse().getBodyAsString().block(TIMEOUT));
+        assertEquals(1.0, meterRegistry.get("gateway.request.coalescing").tag("role", "fallback").counter().count());
+    }
+
+    @Test
+    void shouldLetFollowersFallBackWhenLeaderIsCancelled() {
+        // Given: el líder nunca recibe respuesta y su cliente se desconecta
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain backend = exchange -> calls.incrementAndGet() == 1
+                ? Mono.never()
+                : write(exchange.getResponse(), "products");
+        Disposable leader = filter.filter(exchange(), backend).subscribe();
+        MockServerWebExchange follower = exchange();
+        Mono<Void> followerDone = filter.filter(follower, backend).cache();
+        followerDone.subscribe();
+
+        // When
+        leader.dispose();
+
+        // Then: el seguidor no espera al follower-timeout (300 ms) y hace su propia petición
+        followerDone.block(Duration.ofMillis(200));
+        assertEquals(2, calls.get());
+        assertEquals("products", follower.getResponse().getBodyAsString().block(TIMEOUT));
+    }
+
+    @Test
+    void shouldFallBackAfterFollowerTimeout() {
+        // Given: líder colgado (el follower-timeout por defecto es 10s; aquí 300 ms)
+        Sinks.Empty<Void> stuck = Sinks.empty();
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain backend = exchange -> calls.incrementAndGet() == 1
+                ? stuck.asMono()
+                : write(exchange.getResponse(), "products");
+        filter.filter(exchange(), backend).subscribe();
+        MockServerWebExchange follower = exchange();
+
+        // When
+        long start = System.nanoTime();
+        filter.filter(follower, backend).block(TIMEOUT);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals("products", follower.getResponse().getBodyAsString().block(TIMEOUT));
+        assertTrue(elapsedMillis >= 250 && elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void shouldNotShareBodiesLargerThanMaxBodySize() {
+        // Given: 20 bytes con un máximo de 16
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain backend = backend(release.asMono(), "01234567890123456789");
+        MockServerWebExchange leader = exchange();
+        MockServerWebExchange follower = exchange();
+
+        // When
+        Mono<Void> leaderDone = filter.filter(leader, backend).cache();
+        leaderDone.subscribe();
+        Mono<Void> followerDone = filter.filter(follower, backend).cache();
+        followerDone.subscribe();
+        release.tryEmitEmpty();
+        leaderDone.block(TIMEOUT);
+        followerDone.block(TIMEOUT);
+
+        // Then: ambos reciben el cuerpo completo, el seguidor con su propia petición
+        assertEquals("01234567890123456789", leader.getResponse().getBodyAsString().block(TIMEOUT));
+        assertEquals("01234567890123456789", follower.getResponse().getBodyAsString().block(TIMEOUT));
+        assertEquals(2, backendCalls.get());
+    }
+
+    private static String key(MockServerHttpRequest.BaseBuilder<?> request, RequestCoalescingGlobalFilter.Scope scope) {
+        return RequestCoalescingGlobalFilter.key(request.build(), scope);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> user(String userId, String roles) {
+        return MockServerHttpRequest.get("/api/products?page=0")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer same-token")
+                .header(InternalIdentityHeaders.USER_ID, userId)
+                .header(InternalIdentityHeaders.ROLES, roles);
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> bearer(String token) {
+        return MockServerHttpRequest.get("/api/products?page=0").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products?page=0"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("ms-products")
+                .uri("http://localhost:8085")
+                .predicate(e -> true)
+                .metadata(RequestCoalescingGlobalFilter.SCOPE_METADATA_KEY, "public")
+                .build());
+        return exchange;
+    }
+
+    private GatewayFilterChain backend(Mono<Void> ready, String body) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            return ready.then(Mono.defer(() -> write(exchange.getResponse(), body)));
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, String body) {
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
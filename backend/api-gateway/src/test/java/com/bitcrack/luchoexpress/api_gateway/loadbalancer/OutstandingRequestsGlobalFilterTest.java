@@ -0,0 +1,93 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static com.bitcrack.luchoexpress.api_gateway.loadbalancer.PowerOfTwoChoicesLoadBalancerTest.instance;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutstandingRequestsGlobalFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker(meterRegistry);
+    private final OutstandingRequestsGlobalFilter filter = new OutstandingRequestsGlobalFilter(tracker);
+    private final ServiceInstance instance = instance(1);
+
+    @Test
+    void shouldCountRequestWhileInFlightAndReleaseOnSuccess() {
+        // Given
+        Sinks.Empty<Void> backend = Sinks.empty();
+        Mono<Void> done = filter.filter(exchange(), exchange -> backend.asMono()).cache();
+        done.subscribe();
+        assertEquals(1, tracker.outstanding(instance));
+
+        // When
+        backend.tryEmitEmpty();
+        done.block(TIMEOUT);
+
+        // Then
+        assertEquals(0, tracker.outstanding(instance));
+        assertEquals(1, requests("SUCCESS"));
+    }
+
+    @Test
+    void shouldReleaseOnErrorCancelAndServerError() {
+        // Error de conexión
+        assertThrows(IllegalStateException.class, () -> filter.filter(exchange(),
+                exchange -> Mono.error(new IllegalStateException("connection refused"))).block(TIMEOUT));
+        assertEquals(0, tracker.outstanding(instance));
+
+        // Cancelación (timeout de la ruta, CircuitBreaker o cliente desconectado)
+        Disposable cancelled = filter.filter(exchange(), exchange -> Mono.never()).subscribe();
+        assertEquals(1, tracker.outstanding(instance));
+        cancelled.dispose();
+        assertEquals(0, tracker.outstanding(instance));
+
+        // 5xx del backend
+        GatewayFilterChain serverError = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return Mono.empty();
+        };
+        filter.filter(exchange(), serverError).block(TIMEOUT);
+        assertEquals(0, tracker.outstanding(instance));
+
+        assertEquals(1, requests("ERROR"));
+        assertEquals(1, requests("CANCELLED"));
+        assertEquals(1, requests("SERVER_ERROR"));
+        assertEquals(0.0, meterRegistry.get("gateway.loadbalancer.outstanding").gauge().value());
+    }
+
+    @Test
+    void shouldIgnoreRequestsWithoutChosenInstance() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products"));
+
+        filter.filter(exchange, e -> Mono.empty()).block(TIMEOUT);
+
+        assertEquals(0, tracker.outstanding(instance));
+        assertNull(meterRegistry.find("gateway.loadbalancer.request").timer());
+    }
+
+    private long requests(String outcome) {
+        return meterRegistry.get("gateway.loadbalancer.request").tag("outcome", outcome).timer().count();
+    }
+
+    private MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+        return exchange;
+    }
+}
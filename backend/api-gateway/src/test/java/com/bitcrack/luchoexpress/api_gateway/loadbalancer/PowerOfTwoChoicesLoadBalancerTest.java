@@ -0,0 +1,112 @@
+package com.bitcrack.luchoexpress.api_gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PowerOfTwoChoicesLoadBalancerTest {
+
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker(new SimpleMeterRegistry());
+    private final PowerOfTwoChoicesLoadBalancer loadBalancer = new PowerOfTwoChoicesLoadBalancer(
+            new StaticListableBeanFactory().getBeanProvider(ServiceInstanceListSupplier.class), tracker, "ms-products");
+
+    @Test
+    void shouldPreferInstanceWithFewerOutstandingRequests() {
+        // Given
+        ServiceInstance busy = instance(1);
+        ServiceInstance idle = instance(2);
+        startRequests(busy, 3);
+
+        // When / Then: con dos instancias siempre se comparan ambas
+        for (int i = 0; i < 100; i++) {
+            assertEquals(idle, loadBalancer.choose(List.of(busy, idle)).getServer());
+        }
+    }
+
+    @Test
+    void shouldNeverPickBusiestOfThreeAndSpreadTheRest() {
+        // Given
+        ServiceInstance busiest = instance(1);
+        ServiceInstance a = instance(2);
+        ServiceInstance b = instance(3);
+        startRequests(busiest, 5);
+        Map<ServiceInstance, Integer> picks = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            picks.merge(loadBalancer.choose(List.of(busiest, a, b)).getServer(), 1, Integer::sum);
+        }
+
+        // Then: la más cargada pierde contra cualquier otra; las demás se reparten
+        assertNull(picks.get(busiest));
+        assertTrue(picks.get(a) > 300 && picks.get(b) > 300, picks.toString());
+    }
+
+    @Test
+    void shouldHandleEmptyAndSingleInstanceLists() {
+        ServiceInstance only = instance(1);
+        startRequests(only, 10);
+
+        assertFalse(loadBalancer.choose(List.of()).hasServer());
+        assertEquals(only, loadBalancer.choose(List.of(only)).getServer());
+    }
+
+    @Test
+    void shouldReturnEmptyResponseWithoutSupplier() {
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertFalse(response.hasServer());
+    }
+
+    @Test
+    void shouldChooseFromSupplierInstances() {
+        // Given
+        ServiceInstance busy = instance(1);
+        ServiceInstance idle = instance(2);
+        startRequests(busy, 1);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("supplier", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "ms-products";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.of(busy, idle));
+            }
+        });
+        PowerOfTwoChoicesLoadBalancer withSupplier = new PowerOfTwoChoicesLoadBalancer(
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), tracker, "ms-products");
+
+        // When
+        Response<ServiceInstance> response = withSupplier.choose(new DefaultRequest<>()).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(idle, response.getServer());
+    }
+
+    private void startRequests(ServiceInstance instance, int count) {
+        for (int i = 0; i < count; i++) {
+            tracker.started(instance);
+        }
+    }
+
+    static ServiceInstance instance(int n) {
+        return new DefaultServiceInstance("ms-products-" + n, "ms-products", "10.0.0." + n, 8085, false);
+    }
+}
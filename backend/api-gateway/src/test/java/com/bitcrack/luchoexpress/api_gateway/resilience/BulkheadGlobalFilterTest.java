@@ -0,0 +1,106 @@
+package com.bitcrack.luchoexpress.api_gateway.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadGlobalFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BulkheadGlobalFilter filter = new BulkheadGlobalFilter(meterRegistry);
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void shouldRejectAboveLimitWith503AndRetryAfter() {
+        // Given: la única plaza está ocupada por una petición en curso
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        filter.filter(exchange(1), chain(inFlight.asMono())).subscribe();
+        MockServerWebExchange rejected = exchange(1);
+
+        // When
+        filter.filter(rejected, chain(Mono.empty())).block(TIMEOUT);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(MediaType.APPLICATION_JSON, rejected.getResponse().getHeaders().getContentType());
+        assertTrue(rejected.getResponse().getBodyAsString().block(TIMEOUT).contains("ms-products"));
+        assertEquals(1, backendCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.bulkhead.rejected").tag("route", "ms-products").counter().count());
+        assertEquals(1.0, active());
+    }
+
+    @Test
+    void shouldReleasePermitOnSuccessErrorAndCancel() {
+        // Success
+        filter.filter(exchange(1), chain(Mono.empty())).block(TIMEOUT);
+        assertEquals(0.0, active());
+
+        // Error
+        assertThrows(IllegalStateException.class,
+                () -> filter.filter(exchange(1), chain(Mono.error(new IllegalStateException("connection reset")))).block(TIMEOUT));
+        assertEquals(0.0, active());
+
+        // Cancelación (cliente desconectado o CircuitBreaker)
+        Disposable cancelled = filter.filter(exchange(1), chain(Mono.never())).subscribe();
+        assertEquals(1.0, active());
+        cancelled.dispose();
+        assertEquals(0.0, active());
+
+        // La plaza vuelve a estar libre
+        MockServerWebExchange next = exchange(1);
+        filter.filter(next, chain(Mono.empty())).block(TIMEOUT);
+        assertNotEquals(HttpStatus.SERVICE_UNAVAILABLE, next.getResponse().getStatusCode());
+        assertEquals(4, backendCalls.get());
+    }
+
+    @Test
+    void shouldNotLimitRoutesWithoutMetadata() {
+        // Given
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange(null), chain(inFlight.asMono())).subscribe();
+        }
+
+        // Then
+        assertEquals(10, backendCalls.get());
+        assertTrue(meterRegistry.find("gateway.bulkhead.rejected").counters().isEmpty());
+    }
+
+    private double active() {
+        return meterRegistry.get("gateway.bulkhead.active").tag("route", "ms-products").gauge().value();
+    }
+
+    private GatewayFilterChain chain(Mono<Void> backend) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            return backend;
+        };
+    }
+
+    private static MockServerWebExchange exchange(Integer maxConcurrent) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products"));
+        Route.AsyncBuilder route = Route.async().id("ms-products").uri("http://localhost:8085").predicate(e -> true);
+        if (maxConcurrent != null) {
+            route.metadata(BulkheadGlobalFilter.MAX_CONCURRENT_METADATA_KEY, maxConcurrent);
+        }
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route.build());
+        return exchange;
+    }
+}
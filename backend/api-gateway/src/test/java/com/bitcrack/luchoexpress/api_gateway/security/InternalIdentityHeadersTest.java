@@ -0,0 +1,43 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El vector SECRET/USER_ID/.../SIGNATURE es el mismo que el de InternalIdentityVerifierTest en ms-order,
+ * ms-products y ms-tracking-orders: lo que firma el gateway es exactamente lo que esos servicios verifican.
+ */
+class InternalIdentityHeadersTest {
+
+    static final String SECRET = "lucho-express-internal-auth-test-vector";
+    static final String USER_ID = "0190a6f4-3c2b-7d8e-9f01-23456789abcd";
+    static final String USERNAME = "ana.lopez";
+    static final String ROLES = "USER";
+    static final long ISSUED_AT = 1767225600000L;
+    static final String SIGNATURE = "j-7vXtRsBAKBmSdGqOhcFaQJXiG7PrW8WhrQMBSL9wU";
+    static final String MULTI_ROLES = "ADMIN,USER";
+    static final String MULTI_ROLES_SIGNATURE = "qtEs2y0Z5Asq6eBYakqXwytgn0rWo2KwAfbySemhR3k";
+
+    @Test
+    void shouldSignSharedTestVector() {
+        byte[] secret = SECRET.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(SIGNATURE, InternalIdentityHeaders.sign(secret, USER_ID, USERNAME, ROLES, ISSUED_AT));
+        assertEquals(MULTI_ROLES_SIGNATURE, InternalIdentityHeaders.sign(secret, USER_ID, USERNAME, MULTI_ROLES, ISSUED_AT));
+        assertEquals(USER_ID + "\n" + USERNAME + "\n" + ROLES + "\n" + ISSUED_AT,
+                InternalIdentityHeaders.canonicalPayload(USER_ID, USERNAME, ROLES, ISSUED_AT));
+    }
+
+    @Test
+    void shouldChangeSignatureWithAnyField() {
+        byte[] secret = SECRET.getBytes(StandardCharsets.UTF_8);
+
+        assertNotEquals(SIGNATURE, InternalIdentityHeaders.sign(secret, USER_ID, USERNAME, "ADMIN", ISSUED_AT));
+        assertNotEquals(SIGNATURE, InternalIdentityHeaders.sign(secret, USER_ID, "other", ROLES, ISSUED_AT));
+        assertNotEquals(SIGNATURE, InternalIdentityHeaders.sign(secret, USER_ID, USERNAME, ROLES, ISSUED_AT + 1));
+        assertNotEquals(SIGNATURE, InternalIdentityHeaders.sign("other".getBytes(StandardCharsets.UTF_8), USER_ID, USERNAME, ROLES, ISSUED_AT));
+    }
+}
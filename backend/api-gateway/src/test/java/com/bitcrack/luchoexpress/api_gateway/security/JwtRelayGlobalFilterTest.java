@@ -0,0 +1,109 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtRelayGlobalFilterTest {
+
+    private static final String JWT_SECRET = "myVerySecureSecretKeyForJWT1234567890123456789012345678901234567890123456789012345678901234567890";
+    private static final String INTERNAL_SECRET = "lucho-express-internal-auth-test-vector";
+    private static final String USER_ID = "0190a6f4-3c2b-7d8e-9f01-23456789abcd";
+
+    private final JwtRelayGlobalFilter filter = new JwtRelayGlobalFilter(new JwtVerifier(
+            new JwtKeyHolder(JWT_SECRET, "", Duration.ofHours(24), new SimpleMeterRegistry()), Duration.ofHours(24), 100), INTERNAL_SECRET);
+
+    @Test
+    void shouldStripClientSuppliedIdentityHeadersWithoutToken() {
+        // Given: cliente intentando hacerse pasar por ADMIN
+        MockServerHttpRequest request = forgedHeaders(MockServerHttpRequest.get("/api/orders")).build();
+
+        // When
+        HttpHeaders relayed = relay(request);
+
+        // Then
+        InternalIdentityHeaders.ALL.forEach(header -> assertFalse(relayed.containsKey(header), header));
+    }
+
+    @Test
+    void shouldStripClientSuppliedIdentityHeadersWithInvalidToken() {
+        // Given
+        MockServerHttpRequest request = forgedHeaders(MockServerHttpRequest.get("/api/orders"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("another-secret-another-secret-another-secret-another-secret-0123456789"))
+                .build();
+
+        // When
+        HttpHeaders relayed = relay(request);
+
+        // Then: el Authorization sigue para los servicios que verifican el JWT por su cuenta
+        InternalIdentityHeaders.ALL.forEach(header -> assertFalse(relayed.containsKey(header), header));
+        assertNotNull(relayed.getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void shouldReplaceClientHeadersWithSignedIdentityFromValidToken() {
+        // Given
+        MockServerHttpRequest request = forgedHeaders(MockServerHttpRequest.get("/api/orders"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(JWT_SECRET))
+                .build();
+
+        // When
+        HttpHeaders relayed = relay(request);
+
+        // Then: una sola copia de cada cabecera, con los valores del token y firmada
+        assertEquals(List.of(USER_ID), relayed.get(InternalIdentityHeaders.USER_ID));
+        assertEquals(List.of("ana.lopez"), relayed.get(InternalIdentityHeaders.USERNAME));
+        assertEquals(List.of("USER"), relayed.get(InternalIdentityHeaders.ROLES));
+        long issuedAt = Long.parseLong(relayed.getFirst(InternalIdentityHeaders.ISSUED_AT));
+        assertEquals(InternalIdentityHeaders.sign(INTERNAL_SECRET.getBytes(StandardCharsets.UTF_8), USER_ID, "ana.lopez", "USER", issuedAt),
+                relayed.getFirst(InternalIdentityHeaders.SIGNATURE));
+    }
+
+    private HttpHeaders relay(MockServerHttpRequest request) {
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+
+        filter.filter(MockServerWebExchange.from(request), chain).block(Duration.ofSeconds(5));
+
+        return forwarded.get().getRequest().getHeaders();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> forgedHeaders(MockServerHttpRequest.BaseBuilder<?> request) {
+        return request
+                .header(InternalIdentityHeaders.USER_ID, "00000000-0000-0000-0000-000000000000")
+                .header(InternalIdentityHeaders.USERNAME, "root")
+                .header(InternalIdentityHeaders.ROLES, "ROOT")
+                .header(InternalIdentityHeaders.ISSUED_AT, Long.toString(System.currentTimeMillis()))
+                .header(InternalIdentityHeaders.SIGNATURE, "forged");
+    }
+
+    private static String token(String secret) {
+        return Jwts.builder()
+                .setSubject("ana.lopez")
+                .claim("userId", USER_ID)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
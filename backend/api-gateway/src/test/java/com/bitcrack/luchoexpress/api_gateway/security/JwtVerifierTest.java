@@ -0,0 +1,102 @@
+package com.bitcrack.luchoexpress.api_gateway.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "myVerySecureSecretKeyForJWT1234567890123456789012345678901234567890123456789012345678901234567890";
+    private static final String NEW_SECRET = "anotherVerySecureSecretKeyForJWT123456789012345678901234567890123456789012345678901234567890";
+    private static final String USER_ID = "0190a6f4-3c2b-7d8e-9f01-23456789abcd";
+
+    @Test
+    void shouldVerifyTokenSignedWithCurrentKey() {
+        // Given
+        JwtVerifier verifier = verifier(new JwtKeyHolder(SECRET, "", Duration.ofHours(1), new SimpleMeterRegistry()), Duration.ofHours(1));
+
+        // When
+        JwtVerifier.VerifiedIdentity identity = verifier.verify(sign(SECRET)).orElseThrow();
+
+        // Then
+        assertEquals(USER_ID, identity.userId());
+        assertEquals("ana.lopez", identity.username());
+        assertEquals("USER", identity.roles());
+    }
+
+    @Test
+    void shouldAcceptNewKeyAndPreviousKeyDuringGracePeriodAfterRotation() {
+        // Given
+        JwtKeyHolder keyHolder = new JwtKeyHolder(SECRET, "", Duration.ofHours(1), new SimpleMeterRegistry());
+        JwtVerifier verifier = verifier(keyHolder, Duration.ofHours(1));
+        String oldToken = sign(SECRET);
+
+        // When
+        keyHolder.rotate(NEW_SECRET);
+
+        // Then
+        assertTrue(verifier.verify(sign(NEW_SECRET)).isPresent());
+        assertTrue(verifier.verify(oldToken).isPresent());
+    }
+
+    @Test
+    void shouldStopAcceptingCachedTokenOfRetiredKey() {
+        // Given: token ya verificado y cacheado con la clave que se retira sin periodo de gracia
+        JwtKeyHolder keyHolder = new JwtKeyHolder(SECRET, "", Duration.ZERO, new SimpleMeterRegistry());
+        JwtVerifier verifier = verifier(keyHolder, Duration.ZERO);
+        String oldToken = sign(SECRET);
+        assertTrue(verifier.verify(oldToken).isPresent());
+
+        // When
+        keyHolder.rotate(NEW_SECRET);
+
+        // Then: la rotación vacía la cache y la firma vuelve a comprobarse
+        assertTrue(verifier.verify(oldToken).isEmpty());
+        assertTrue(verifier.verify(sign(NEW_SECRET)).isPresent());
+    }
+
+    @Test
+    void shouldPickUpRotatedSecretFile(@TempDir Path dir) throws Exception {
+        // Given
+        Path secretFile = dir.resolve("jwt-secret");
+        Files.writeString(secretFile, SECRET);
+        JwtKeyHolder keyHolder = new JwtKeyHolder("unused-default-secret-unused-default-secret-unused-default-secret-0123",
+                secretFile.toString(), Duration.ZERO, new SimpleMeterRegistry());
+        JwtVerifier verifier = verifier(keyHolder, Duration.ZERO);
+        assertTrue(verifier.verify(sign(SECRET)).isPresent());
+
+        // When
+        Files.writeString(secretFile, NEW_SECRET);
+        keyHolder.reloadSecretFile();
+
+        // Then
+        assertTrue(verifier.verify(sign(NEW_SECRET)).isPresent());
+        assertTrue(verifier.verify(sign(SECRET)).isEmpty());
+    }
+
+    private static JwtVerifier verifier(JwtKeyHolder keyHolder, Duration gracePeriod) {
+        return new JwtVerifier(keyHolder, gracePeriod, 100);
+    }
+
+    private static String sign(String secret) {
+        return Jwts.builder()
+                .setSubject("ana.lopez")
+                .claim("userId", USER_ID)
+                .claim("roles", List.of("USER"))
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
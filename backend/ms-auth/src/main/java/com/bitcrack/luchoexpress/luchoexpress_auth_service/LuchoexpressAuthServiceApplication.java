@@ -3,9 +3,11 @@ package com.bitcrack.luchoexpress.luchoexpress_auth_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
 public class LuchoexpressAuthServiceApplication {
 
 	public static void main(String[] args) {
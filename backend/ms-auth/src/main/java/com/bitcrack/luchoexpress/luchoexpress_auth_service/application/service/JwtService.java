@@ -1,33 +1,27 @@
 package com.bitcrack.luchoexpress.luchoexpress_auth_service.application.service;
 
 import com.bitcrack.luchoexpress.luchoexpress_auth_service.domain.User;
+import com.bitcrack.luchoexpress.luchoexpress_auth_service.infraestructure.config.JwtKeyHolder;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyHolder jwtKeyHolder;
     
     @Value("${jwt.expiration}")
     private long expiration;
     
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("sub", user.getUsername());
@@ -48,7 +42,7 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(jwtKeyHolder.getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
     
@@ -65,18 +59,18 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        return jwtKeyHolder.parseClaims(token);
     }
     
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
     
+    public boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+    
     public Boolean validateToken(String token, User user) {
         final String username = extractUsername(token);
         return (username.equals(user.getUsername()) && !isTokenExpired(token));
@@ -1,10 +1,12 @@
 package com.bitcrack.luchoexpress.luchoexpress_auth_service.domain;
 
+import com.bitcrack.luchoexpress.luchoexpress_auth_service.persistance.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -23,7 +25,7 @@ import java.util.UUID;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @Column(unique = true, nullable = false, length = 50)
@@ -1,6 +1,7 @@
 package com.bitcrack.luchoexpress.luchoexpress_auth_service.infraestructure.config;
 
 import com.bitcrack.luchoexpress.luchoexpress_auth_service.application.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +33,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -40,12 +42,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Parse and verify the token once for the whole request
+        claims = jwtService.extractAllClaims(jwt);
+        username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (!jwtService.isTokenExpired(jwt)) {
+            if (!jwtService.isTokenExpired(claims)) {
                 // Extract role from token
-                String role = jwtService.extractClaim(jwt, claims -> claims.get("role", String.class));
+                String role = claims.get("role", String.class);
                 
                 var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
                 var authToken = new UsernamePasswordAuthenticationToken(
@@ -12,7 +12,7 @@ CREATE DATABASE auth_db;
 
 /*
 CREATE TABLE users (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID PRIMARY KEY, -- UUIDv7 generado por la aplicación (UuidV7Generator)
     username VARCHAR(50) NOT NULL UNIQUE,
     password_hash VARCHAR(255) NOT NULL,
     email VARCHAR(100) NOT NULL UNIQUE,
@@ -0,0 +1,12 @@
+package com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.event;
+
+import java.util.UUID;
+
+/**
+ * Publicado cuando los datos de un cliente cambian (actualización o eliminación lógica).
+ * Los servicios que cachean información de clientes deben invalidar su copia.
+ */
+public record CustomerChangedEvent(
+    UUID customerId,
+    UUID userId
+) {}
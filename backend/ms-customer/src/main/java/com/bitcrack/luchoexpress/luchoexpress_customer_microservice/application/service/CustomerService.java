@@ -3,6 +3,7 @@ package com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.dto.CreateCustomerRequest;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.dto.CustomerResponse;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.dto.UpdateCustomerRequest;
+import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.event.CustomerChangedEvent;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.mapper.CustomerMapper;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.domain.Customer;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.infraestructure.exceptions.CustomerAlreadyExistsException;
@@ -10,6 +11,7 @@ import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.infraestruct
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.infraestructure.exceptions.UserAlreadyHasCustomerException;
 import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.persistance.repositories.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class CustomerService {
     
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CustomerResponse createCustomer(CreateCustomerRequest request) {
         // Verificar si ya existe un cliente con el mismo userId
@@ -104,6 +107,7 @@ public class CustomerService {
         
         customerMapper.updateEntityFromRequest(customer, request);
         Customer updatedCustomer = customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(updatedCustomer.getId(), updatedCustomer.getUserId()));
         return customerMapper.toResponse(updatedCustomer);
     }
     
@@ -113,6 +117,7 @@ public class CustomerService {
         
         customer.disable();
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(), customer.getUserId()));
     }
     
     @Transactional(readOnly = true)
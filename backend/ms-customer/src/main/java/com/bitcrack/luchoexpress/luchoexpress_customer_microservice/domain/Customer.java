@@ -1,5 +1,6 @@
 package com.bitcrack.luchoexpress.luchoexpress_customer_microservice.domain;
 
+import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.persistance.UuidV7Generator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,6 +9,7 @@ import jakarta.validation.constraints.Pattern;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -28,7 +30,7 @@ import java.util.UUID;
 public class Customer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @NotNull(message = "User ID is required")
@@ -0,0 +1,65 @@
+package com.bitcrack.luchoexpress.luchoexpress_customer_microservice.infraestructure.clients;
+
+import com.bitcrack.luchoexpress.luchoexpress_customer_microservice.application.event.CustomerChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Notifica a ms-order que debe invalidar su near-cache de clientes.
+ * Se ejecuta después del commit. No es un broadcast: con varias réplicas de ms-order solo se invalida la que atiende
+ * la llamada, y si ms-order no responde no se reintenta; en ambos casos el TTL de su cache acota la inconsistencia.
+ */
+@Component
+@Slf4j
+public class OrderServiceCacheClient {
+    
+    private final RestClient restClient;
+    private final String apiKey;
+    private final boolean enabled;
+    
+    public OrderServiceCacheClient(
+            @Value("${order.service.url:http://localhost:8084}") String orderServiceUrl,
+            @Value("${microservices.api-key:lucho-express-secret-key-2025}") String apiKey,
+            @Value("${customer.cache-invalidation.enabled:true}") boolean enabled,
+            @Value("${customer.cache-invalidation.timeout:2s}") Duration timeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        
+        this.restClient = RestClient.builder()
+                .baseUrl(orderServiceUrl)
+                .requestFactory(requestFactory)
+                .build();
+        this.apiKey = apiKey;
+        this.enabled = enabled;
+    }
+    
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            restClient.post()
+                    .uri("/api/orders/internal/customer-cache/invalidate")
+                    .header("X-API-Key", apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(event)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.debug("Customer cache invalidated in order service for customer: {}", event.customerId());
+        } catch (Exception e) {
+            log.warn("Could not invalidate customer cache in order service for customer {}: {}",
+                    event.customerId(), e.getMessage());
+        }
+    }
+}
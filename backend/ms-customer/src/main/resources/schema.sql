@@ -18,7 +18,7 @@ CREATE DATABASE customers_db;
 
 /*
 CREATE TABLE customers (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID PRIMARY KEY, -- UUIDv7 generado por la aplicación (UuidV7Generator)
     user_id UUID NOT NULL UNIQUE,
     document_id VARCHAR(50) NOT NULL UNIQUE,
     name VARCHAR(100) NOT NULL,
@@ -0,0 +1,17 @@
+package com.bitcrack.luchoexpress.order_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+    
+    private List<OrderSummaryResponse> items;
+    // Token opaco para pedir la página siguiente; null si no hay más
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.bitcrack.luchoexpress.order_service.application.dto;
+
+import com.bitcrack.luchoexpress.order_service.domain.OrderStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrackingResponse {
+    
+    private UUID orderId;
+    private String orderNumber;
+    private UUID userId;
+    private OrderStatusEnum status;
+    private LocalDateTime updatedAt;
+}
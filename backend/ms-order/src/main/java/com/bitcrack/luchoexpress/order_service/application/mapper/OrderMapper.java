@@ -3,9 +3,11 @@ package com.bitcrack.luchoexpress.order_service.application.mapper;
 import com.bitcrack.luchoexpress.order_service.application.dto.CreateOrderRequest;
 import com.bitcrack.luchoexpress.order_service.application.dto.OrderProductResponse;
 import com.bitcrack.luchoexpress.order_service.application.dto.OrderResponse;
+import com.bitcrack.luchoexpress.order_service.application.dto.OrderSummaryResponse;
 import com.bitcrack.luchoexpress.order_service.application.dto.UpdateOrderRequest;
 import com.bitcrack.luchoexpress.order_service.domain.Order;
 import com.bitcrack.luchoexpress.order_service.domain.OrderProduct;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.OrderSummaryView;
 import org.springframework.stereotype.Component;
 
 import java.util.stream.Collectors;
@@ -39,6 +41,21 @@ public class OrderMapper {
         );
     }
     
+    public OrderSummaryResponse toSummaryResponse(OrderSummaryView order) {
+        return new OrderSummaryResponse(
+            order.getId(),
+            order.getOrderNumber(),
+            order.getCustomerId(),
+            order.getDeliveryAddress(),
+            order.getStatus(),
+            order.getOrderDate(),
+            order.getEstimatedDeliveryDate(),
+            order.getTotalAmount(),
+            order.getCreatedAt(),
+            order.getUpdatedAt()
+        );
+    }
+    
     public OrderProductResponse toProductResponse(OrderProduct orderProduct) {
         return new OrderProductResponse(
             orderProduct.getId(),
@@ -0,0 +1,10 @@
+package com.bitcrack.luchoexpress.order_service.application.service;
+
+public interface OrderNumberGenerator {
+
+    /**
+     * Genera el número visible de una nueva orden (columna única orders.orderNumber).
+     * Debe ser único entre todas las réplicas de ms-order sin consultar la base de datos.
+     */
+    String next();
+}
@@ -4,18 +4,28 @@ import com.bitcrack.luchoexpress.order_service.application.dto.*;
 import com.bitcrack.luchoexpress.order_service.application.mapper.OrderMapper;
 import com.bitcrack.luchoexpress.order_service.domain.Order;
 import com.bitcrack.luchoexpress.order_service.domain.OrderProduct;
+import com.bitcrack.luchoexpress.order_service.domain.TrackingOutboxEvent;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.CustomerNotFoundException;
 import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.OrderNotFoundException;
-import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.ProductNotFoundException;
 import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.UnauthorizedAccessException;
 import com.bitcrack.luchoexpress.order_service.persistance.repositories.OrderRepository;
+import com.bitcrack.luchoexpress.order_service.persistance.repositories.TrackingOutboxRepository;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.OrderSummaryView;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.OrderTrackingView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -27,26 +37,34 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
-    private final ProductServiceClient productServiceClient;
-    private final TrackingServiceClient trackingServiceClient;
+    private final TrackingOutboxRepository trackingOutboxRepository;
     private final CustomerServiceClient customerServiceClient;
+    private final OrderValidationStage orderValidationStage;
+    private final OrderNumberGenerator orderNumberGenerator;
+    
+    @Value("${orders.page.default-size:20}")
+    private int defaultPageSize = 20;
+    
+    @Value("${orders.page.max-size:100}")
+    private int maxPageSize = 100;
     
     public OrderResponse createOrder(CreateOrderRequest request, Authentication authentication) {
         log.info("Creating order for customer: {}", request.getCustomerId());
         
-        // Validate customer matches authenticated user (for CLIENTE role)
-        validateCustomerAccess(request.getCustomerId(), authentication);
+        // Remote validations run concurrently: customer access (CLIENTE role) and product existence/prices
+        Map<UUID, ProductValidationResponse> productInfos = orderValidationStage.validate(
+                customerAccessCheck(request.getCustomerId(), authentication),
+                request.getProducts().stream()
+                        .map(CreateOrderProductRequest::getProductId)
+                        .toList());
         
         // Create order entity
         Order order = orderMapper.toEntity(request);
+        order.setOrderNumber(orderNumberGenerator.next());
         
-        // Validate and add products
+        // Add products
         for (CreateOrderProductRequest productRequest : request.getProducts()) {
-            ProductValidationResponse productInfo = productServiceClient.validateProduct(productRequest.getProductId());
-            
-            if (!productInfo.isExists()) {
-                throw new ProductNotFoundException("Product with ID " + productRequest.getProductId() + " not found");
-            }
+            ProductValidationResponse productInfo = productInfos.get(productRequest.getProductId());
             
             OrderProduct orderProduct = new OrderProduct(
                 productRequest.getProductId(),
@@ -62,15 +80,10 @@ public class OrderService {
         order.calculateTotalAmount();
         
         // Save order
-        Order savedOrder = orderRepository.save(order);
-        
-        // Notify tracking service asynchronously
-        try {
-            trackingServiceClient.notifyOrderCreated(savedOrder);
-        } catch (Exception e) {
-            log.error("Failed to notify tracking service for order creation: {}", savedOrder.getId(), e);
-            // Continue processing - don't fail the order creation
-        }
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        
+        // Queue tracking notification in the same transaction (delivered by TrackingOutboxRelay)
+        trackingOutboxRepository.save(TrackingOutboxEvent.of(savedOrder));
         
         log.info("Order created successfully with ID: {}", savedOrder.getId());
         return orderMapper.toResponse(savedOrder);
@@ -91,16 +104,42 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Listado de órdenes para administración, paginado por keyset sobre (createdAt, id).
+     * Devuelve resúmenes sin líneas de producto; el detalle se obtiene con getOrderById.
+     * @param cursor Token nextCursor de la página anterior, o null para la primera página
+     * @param size Tamaño de página (acotado a orders.page.max-size)
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders(Authentication authentication) {
+    public OrderPageResponse getAllOrders(Authentication authentication, String cursor, Integer size) {
         // Only ADMIN and ROOT can access all orders
         validateAdminAccess(authentication);
         
-        log.info("Fetching all orders");
-        List<Order> orders = orderRepository.findAllByOrderByCreatedAtDesc();
-        return orders.stream()
-                .map(orderMapper::toResponse)
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        log.info("Fetching orders page (size: {}, cursor: {})", pageSize, cursor);
+        
+        // Se pide un elemento extra para saber si existe una página siguiente
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findSummaries(limit);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            rows = orderRepository.findSummariesBefore(position.createdAt(), position.id(), limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummaryResponse> items = rows.stream()
+                .limit(pageSize)
+                .map(orderMapper::toSummaryResponse)
                 .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryResponse last = items.get(items.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new OrderPageResponse(items, nextCursor);
     }
     
     @Transactional(readOnly = true)
@@ -159,6 +198,43 @@ public class OrderService {
         return orderMapper.toResponse(order);
     }
     
+    /**
+     * Tracking de varias órdenes en una sola consulta, para ms-tracking-orders (endpoint interno).
+     * Con userId solo se devuelven las órdenes de ese usuario: su customerId se resuelve una vez (near-cache)
+     * y el filtro va en la consulta, así las órdenes ajenas no generan ninguna llamada remota.
+     * Sin userId (ADMIN/ROOT) se resuelve el userId de cada cliente distinto del lote.
+     * Las órdenes inexistentes o ajenas simplemente no aparecen en la respuesta.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderTrackingResponse> getTrackingByOrderNumbers(Collection<String> orderNumbers, UUID userId) {
+        Collection<String> uniqueOrderNumbers = new LinkedHashSet<>(orderNumbers);
+        if (uniqueOrderNumbers.isEmpty()) {
+            return List.of();
+        }
+        
+        if (userId != null) {
+            UUID customerId;
+            try {
+                customerId = customerServiceClient.getCustomerByUserId(userId).customerId();
+            } catch (CustomerNotFoundException e) {
+                return List.of();
+            }
+            return orderRepository.findTrackingByOrderNumbersAndCustomerId(uniqueOrderNumbers, customerId).stream()
+                    .map(order -> toTrackingResponse(order, userId))
+                    .toList();
+        }
+        
+        Map<UUID, UUID> userIdsByCustomerId = new HashMap<>();
+        return orderRepository.findTrackingByOrderNumbers(uniqueOrderNumbers).stream()
+                .map(order -> toTrackingResponse(order, userIdsByCustomerId.computeIfAbsent(order.getCustomerId(),
+                        customerId -> customerServiceClient.getCustomerById(customerId).userId())))
+                .toList();
+    }
+    
+    private static OrderTrackingResponse toTrackingResponse(OrderTrackingView order, UUID userId) {
+        return new OrderTrackingResponse(order.getId(), order.getOrderNumber(), userId, order.getStatus(), order.getUpdatedAt());
+    }
+    
     @Transactional(readOnly = true)
     public OrderResponse getOrderByOrderNumberPublic(String orderNumber) {
         log.info("Fetching order with order number (public): {}", orderNumber);
@@ -184,15 +260,11 @@ public class OrderService {
         // Recalculate total if needed
         order.calculateTotalAmount();
         
-        Order updatedOrder = orderRepository.save(order);
+        // Flush so updatedAt (the tracking version) is already set when the outbox event is built
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         
-        // Notify tracking service asynchronously
-        try {
-            trackingServiceClient.notifyOrderUpdated(updatedOrder);
-        } catch (Exception e) {
-            log.error("Failed to notify tracking service for order update: {}", updatedOrder.getId(), e);
-            // Continue processing - don't fail the order update
-        }
+        // Queue tracking notification in the same transaction (delivered by TrackingOutboxRelay)
+        trackingOutboxRepository.save(TrackingOutboxEvent.of(updatedOrder));
         
         log.info("Order updated successfully: {}", updatedOrder.getId());
         return orderMapper.toResponse(updatedOrder);
@@ -229,31 +301,34 @@ public class OrderService {
         
         // Cancel the order
         order.cancel();
-        Order cancelledOrder = orderRepository.save(order);
-        
-        // Notify tracking service asynchronously
-        try {
-            trackingServiceClient.notifyOrderUpdated(cancelledOrder);
-        } catch (Exception e) {
-            log.error("Failed to notify tracking service for order cancellation: {}", cancelledOrder.getId(), e);
-            // Continue processing - don't fail the order cancellation
-        }
+        Order cancelledOrder = orderRepository.saveAndFlush(order);
+        
+        // Queue tracking notification in the same transaction (delivered by TrackingOutboxRelay)
+        trackingOutboxRepository.save(TrackingOutboxEvent.of(cancelledOrder));
         
         log.info("Order cancelled successfully: {}", cancelledOrder.getId());
         return orderMapper.toResponse(cancelledOrder);
     }
     
-    private void validateCustomerAccess(UUID customerId, Authentication authentication) {
+    /**
+     * Customer access check to run in the validation stage, or null when the role needs none
+     */
+    private Runnable customerAccessCheck(UUID customerId, Authentication authentication) {
         String role = extractRoleFromToken(authentication);
         
         // ADMIN and ROOT can create orders for any customer
         if ("ADMIN".equals(role) || "ROOT".equals(role)) {
-            return;
+            return null;
         }
-
+        
+        // Resolved here: the check runs on a validation thread
+        UUID userId = extractUserIdFromToken(authentication);
+        return () -> validateCustomerAccess(customerId, userId);
+    }
+    
+    private void validateCustomerAccess(UUID customerId, UUID userId) {
         // For CLIENTE role, verify that the customerId in the request matches
         // the customer associated with the authenticated user
-        UUID userId = extractUserIdFromToken(authentication);
         CustomerServiceClient.CustomerInfo customerInfo = customerServiceClient.getCustomerByUserId(userId);
         
         if (!customerInfo.customerId().equals(customerId)) {
@@ -0,0 +1,157 @@
+package com.bitcrack.luchoexpress.order_service.application.service;
+
+import com.bitcrack.luchoexpress.order_service.application.dto.ProductValidationResponse;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.ProductNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Validaciones remotas de createOrder en paralelo: el chequeo del cliente (ms-customer) y los lotes de productos
+ * (ms-products) se lanzan a la vez sobre un pool acotado, así la latencia es la de la llamada más lenta y no la suma.
+ * <p>
+ * El primer fallo (producto inexistente, cliente ajeno...) corta la espera sin aguardar al resto, y todo el conjunto
+ * tiene un deadline global (orders.validation.timeout). Si el pool está saturado o se agota el deadline se responde 503.
+ * Métricas del pool: executor.*{name=order.validation}.
+ */
+@Component
+@Slf4j
+public class OrderValidationStage implements DisposableBean {
+
+    private final ProductServiceClient productServiceClient;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final int productBatchSize;
+
+    public OrderValidationStage(
+            ProductServiceClient productServiceClient,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${orders.validation.pool-size:16}") int poolSize,
+            @Value("${orders.validation.queue-capacity:64}") int queueCapacity,
+            @Value("${orders.validation.timeout:5s}") Duration timeout,
+            @Value("${orders.validation.product-batch-size:50}") int productBatchSize) {
+        this.productServiceClient = productServiceClient;
+        this.timeout = timeout;
+        this.productBatchSize = productBatchSize;
+        // Con hilos virtuales pool-size ya no reserva hilos de plataforma: solo acota la concurrencia hacia los servicios
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("order-validation-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("order-validation-");
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, "order.validation", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Valida en paralelo el acceso del cliente y la existencia de los productos.
+     * @param customerCheck Chequeo de acceso del cliente, o null si no aplica (ADMIN/ROOT)
+     * @param productIds Productos del pedido (los duplicados se ignoran)
+     * @return Información de cada producto; todos existen
+     * @throws ProductNotFoundException con el primer producto inexistente detectado
+     * @throws DependencyUnavailableException si se agota el deadline o el pool está saturado
+     */
+    public Map<UUID, ProductValidationResponse> validate(Runnable customerCheck, Collection<UUID> productIds) {
+        List<UUID> uniqueIds = List.copyOf(new LinkedHashSet<>(productIds));
+        Map<UUID, ProductValidationResponse> productInfos = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        try {
+            if (customerCheck != null) {
+                tasks.add(CompletableFuture.runAsync(customerCheck, executor));
+            }
+            for (int from = 0; from < uniqueIds.size(); from += productBatchSize) {
+                List<UUID> batch = uniqueIds.subList(from, Math.min(from + productBatchSize, uniqueIds.size()));
+                tasks.add(CompletableFuture.runAsync(() -> validateProducts(batch, productInfos), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(tasks);
+            throw new DependencyUnavailableException("Too many orders are being validated, please retry", e);
+        }
+
+        // Termina con el primer fallo de cualquier tarea o cuando todas han terminado bien
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        tasks.forEach(task -> task.whenComplete((result, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)), firstFailure)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(tasks);
+            log.warn("Order validation did not complete within {} ({} remote calls)", timeout, tasks.size());
+            throw new DependencyUnavailableException("Order validation did not complete within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            cancel(tasks);
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(tasks);
+            throw new DependencyUnavailableException("Order validation was interrupted", e);
+        }
+
+        return productInfos;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void validateProducts(List<UUID> batch, Map<UUID, ProductValidationResponse> productInfos) {
+        Map<UUID, ProductValidationResponse> validated = productServiceClient.validateProducts(batch);
+        for (UUID productId : batch) {
+            ProductValidationResponse productInfo = validated.get(productId);
+            if (productInfo == null || !productInfo.isExists()) {
+                throw new ProductNotFoundException("Product with ID " + productId + " not found");
+            }
+            productInfos.put(productId, productInfo);
+        }
+    }
+
+    // Las tareas canceladas que aún están en cola no llegan a ejecutarse; las que están en curso las acota el read-timeout de Feign
+    private static void cancel(List<CompletableFuture<Void>> tasks) {
+        tasks.forEach(task -> task.cancel(false));
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new DependencyUnavailableException("Order validation failed: " + error.getMessage(), error);
+    }
+}
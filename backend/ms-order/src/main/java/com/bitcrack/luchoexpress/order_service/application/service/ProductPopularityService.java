@@ -0,0 +1,31 @@
+package com.bitcrack.luchoexpress.order_service.application.service;
+
+import com.bitcrack.luchoexpress.order_service.domain.OrderStatusEnum;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.ProductOrderCountView;
+import com.bitcrack.luchoexpress.order_service.persistance.repositories.OrderProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Popularidad de cada producto (órdenes no canceladas que lo incluyen), para el autocompletado de ms-products.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductPopularityService {
+    
+    private final OrderProductRepository orderProductRepository;
+    
+    /**
+     * @return productId -> número de órdenes; los productos sin órdenes no aparecen
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getOrderCountsByProduct() {
+        return orderProductRepository.countOrdersByProduct(OrderStatusEnum.CANCELLED).stream()
+                .collect(Collectors.toMap(ProductOrderCountView::getProductId, ProductOrderCountView::getOrderCount));
+    }
+}
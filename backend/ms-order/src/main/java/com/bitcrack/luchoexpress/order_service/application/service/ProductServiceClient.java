@@ -2,9 +2,27 @@ package com.bitcrack.luchoexpress.order_service.application.service;
 
 import com.bitcrack.luchoexpress.order_service.application.dto.ProductValidationResponse;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface ProductServiceClient {
     
+    /**
+     * Validate a product against the product service
+     * @param productId The product ID to validate
+     * @return Validation result; exists = false only when the product service answered 404
+     * @throws com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException
+     *         if the product service could not be reached or failed
+     */
     ProductValidationResponse validateProduct(UUID productId);
+    
+    /**
+     * Validate several products with a single call to the product service
+     * @param productIds The product IDs to validate (duplicates are ignored)
+     * @return Validation result per requested product ID; missing products have exists = false
+     * @throws com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException
+     *         if the product service could not be reached or failed
+     */
+    Map<UUID, ProductValidationResponse> validateProducts(Collection<UUID> productIds);
 }
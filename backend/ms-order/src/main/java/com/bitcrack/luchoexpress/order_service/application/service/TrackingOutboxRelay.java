@@ -0,0 +1,124 @@
+package com.bitcrack.luchoexpress.order_service.application.service;
+
+import com.bitcrack.luchoexpress.order_service.domain.TrackingOutboxEvent;
+import com.bitcrack.luchoexpress.order_service.persistance.repositories.TrackingOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entrega a ms-tracking-orders los eventos de la tabla tracking_outbox.
+ * Lee lotes de eventos vencidos; un fallo no bloquea ningún hilo, solo reprograma el evento con backoff exponencial.
+ * Los eventos nunca se descartan: permanecen en la tabla hasta entregarse o ser reemplazados por uno más reciente.
+ * <p>
+ * Con varias réplicas cada lote se reclama en una transacción corta (SELECT ... FOR UPDATE SKIP LOCKED) que adelanta
+ * nextAttemptAt en tracking.outbox.claim-lease: las demás réplicas no ven esas filas hasta que vence el lease, así que
+ * si la réplica cae a mitad de la entrega otra las retoma. La entrega HTTP ocurre fuera de esa transacción.
+ * Si aun así llega a ms-tracking-orders una foto más antigua que la guardada (lease vencido, o un evento anterior
+ * reintentado mientras el más reciente está en backoff), ms-tracking-orders la descarta comparando orderUpdatedAt.
+ */
+@Component
+@Slf4j
+public class TrackingOutboxRelay {
+
+    private final TrackingOutboxRepository trackingOutboxRepository;
+    private final TrackingServiceClient trackingServiceClient;
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int warnAfterAttempts;
+    private final Duration claimLease;
+    private final TransactionTemplate transactionTemplate;
+
+    public TrackingOutboxRelay(
+            TrackingOutboxRepository trackingOutboxRepository,
+            TrackingServiceClient trackingServiceClient,
+            PlatformTransactionManager transactionManager,
+            @Value("${tracking.outbox.batch-size:100}") int batchSize,
+            @Value("${tracking.outbox.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${tracking.outbox.max-backoff:5m}") Duration maxBackoff,
+            @Value("${tracking.outbox.warn-after-attempts:10}") int warnAfterAttempts,
+            @Value("${tracking.outbox.claim-lease:2m}") Duration claimLease) {
+        this.trackingOutboxRepository = trackingOutboxRepository;
+        this.trackingServiceClient = trackingServiceClient;
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.warnAfterAttempts = warnAfterAttempts;
+        this.claimLease = claimLease;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        List<TrackingOutboxEvent> due;
+        try {
+            due = claimDue();
+        } catch (Exception e) {
+            log.error("Could not read tracking outbox", e);
+            return;
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Solo el evento más reciente de cada orden en el lote: los anteriores quedan obsoletos al entregarlo
+        Map<UUID, TrackingOutboxEvent> latestByOrder = new LinkedHashMap<>();
+        for (TrackingOutboxEvent event : due) {
+            latestByOrder.put(event.getOrderId(), event);
+        }
+
+        int delivered = 0;
+        for (TrackingOutboxEvent event : latestByOrder.values()) {
+            if (deliver(event)) {
+                delivered++;
+            }
+        }
+        log.debug("Tracking outbox relay: {} events due, {} orders delivered, {} rescheduled",
+                due.size(), delivered, latestByOrder.size() - delivered);
+    }
+
+    private List<TrackingOutboxEvent> claimDue() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<TrackingOutboxEvent> due = trackingOutboxRepository.findDueForUpdateSkipLocked(now, PageRequest.of(0, batchSize));
+            // El UPDATE se hace al confirmar la transacción (dirty checking), liberando los locks
+            LocalDateTime leaseUntil = now.plus(claimLease);
+            due.forEach(event -> event.setNextAttemptAt(leaseUntil));
+            return due;
+        });
+    }
+
+    private boolean deliver(TrackingOutboxEvent event) {
+        try {
+            trackingServiceClient.sendTrackingStatus(event);
+        } catch (Exception e) {
+            event.scheduleRetry(e.getMessage(), initialBackoff, maxBackoff, LocalDateTime.now());
+            trackingOutboxRepository.save(event);
+
+            if (event.getAttempts() >= warnAfterAttempts) {
+                log.error("Tracking notification for order {} still failing after {} attempts, next attempt at {}: {}",
+                        event.getOrderNumber(), event.getAttempts(), event.getNextAttemptAt(), e.getMessage());
+            } else {
+                log.warn("Tracking notification for order {} failed (attempt {}), retrying at {}: {}",
+                        event.getOrderNumber(), event.getAttempts(), event.getNextAttemptAt(), e.getMessage());
+            }
+            return false;
+        }
+
+        trackingOutboxRepository.deleteDeliveredUpTo(event.getOrderId(), event.getId(), event.getCreatedAt());
+        log.info("Tracking notified for order: {} with status: {}", event.getOrderNumber(), event.getStatus());
+        return true;
+    }
+}
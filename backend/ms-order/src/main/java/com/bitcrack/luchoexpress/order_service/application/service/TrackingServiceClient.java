@@ -1,10 +1,12 @@
 package com.bitcrack.luchoexpress.order_service.application.service;
 
-import com.bitcrack.luchoexpress.order_service.domain.Order;
+import com.bitcrack.luchoexpress.order_service.domain.TrackingOutboxEvent;
 
 public interface TrackingServiceClient {
     
-    void notifyOrderCreated(Order order);
-    
-    void notifyOrderUpdated(Order order);
+    /**
+     * Envía el estado de una orden a ms-tracking-orders de forma síncrona.
+     * Lanza excepción si la entrega falla; los reintentos los gestiona el TrackingOutboxRelay.
+     */
+    void sendTrackingStatus(TrackingOutboxEvent event);
 }
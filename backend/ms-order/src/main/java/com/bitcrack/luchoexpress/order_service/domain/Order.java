@@ -1,10 +1,12 @@
 package com.bitcrack.luchoexpress.order_service.domain;
 
+import com.bitcrack.luchoexpress.order_service.persistance.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,16 +16,21 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_created_at_id", columnList = "createdAt, id")
+}, uniqueConstraints = {
+    // Red de seguridad: un número repetido (p. ej. dos réplicas con el mismo node-id) falla el insert en lugar de duplicarse
+    @UniqueConstraint(name = "uk_orders_order_number", columnNames = "orderNumber")
+})
 @Data
 @NoArgsConstructor
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String orderNumber;
     
     @Column(nullable = false)
@@ -129,11 +136,4 @@ public class Order {
         // Customers can only view their own orders
         return this.customerId.equals(userId);
     }
-    
-    @PrePersist
-    private void generateOrderNumber() {
-        if (this.orderNumber == null) {
-            this.orderNumber = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        }
-    }
 }
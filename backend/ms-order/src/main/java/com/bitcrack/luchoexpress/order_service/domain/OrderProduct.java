@@ -1,9 +1,11 @@
 package com.bitcrack.luchoexpress.order_service.domain;
 
+import com.bitcrack.luchoexpress.order_service.persistance.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -16,7 +18,7 @@ import java.util.UUID;
 public class OrderProduct {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
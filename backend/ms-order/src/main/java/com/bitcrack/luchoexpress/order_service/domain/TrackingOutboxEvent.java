@@ -0,0 +1,87 @@
+package com.bitcrack.luchoexpress.order_service.domain;
+
+import com.bitcrack.luchoexpress.order_service.persistance.UuidV7Generator;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Notificación pendiente hacia ms-tracking-orders (transactional outbox).
+ * Se inserta en la misma transacción que la orden y el TrackingOutboxRelay la entrega después;
+ * cada fila es una foto completa del estado, así que una más reciente reemplaza a las anteriores de la misma orden.
+ */
+@Entity
+@Table(name = "tracking_outbox", indexes = {
+    @Index(name = "idx_tracking_outbox_next_attempt", columnList = "nextAttemptAt"),
+    @Index(name = "idx_tracking_outbox_order_id", columnList = "orderId")
+})
+@Data
+@NoArgsConstructor
+public class TrackingOutboxEvent {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private String orderNumber;
+
+    @Column(nullable = false)
+    private UUID customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatusEnum status;
+
+    // updatedAt de la orden: versión que ms-tracking-orders compara al reconciliar y antes de sobrescribir su copia
+    @Column(nullable = false)
+    private LocalDateTime orderUpdatedAt;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public static TrackingOutboxEvent of(Order order) {
+        TrackingOutboxEvent event = new TrackingOutboxEvent();
+        event.orderId = order.getId();
+        event.orderNumber = order.getOrderNumber();
+        event.customerId = order.getCustomerId();
+        event.status = order.getStatus();
+        event.orderUpdatedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now();
+        event.nextAttemptAt = LocalDateTime.now();
+        return event;
+    }
+
+    /**
+     * Programa el siguiente intento con backoff exponencial (initial, 2*initial, 4*initial...) acotado a maxBackoff.
+     * No bloquea: el relay simplemente no volverá a tomar el evento hasta nextAttemptAt.
+     */
+    public void scheduleRetry(String error, Duration initialBackoff, Duration maxBackoff, LocalDateTime now) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        this.nextAttemptAt = now.plus(backoff);
+    }
+}
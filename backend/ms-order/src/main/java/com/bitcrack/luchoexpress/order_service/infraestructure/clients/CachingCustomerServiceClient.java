@@ -0,0 +1,125 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.clients;
+
+import com.bitcrack.luchoexpress.order_service.application.service.CustomerServiceClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Near-cache in front of {@link CustomerServiceClientImpl}.
+ * The userId -> customerId mapping almost never changes, so lookups are kept in memory
+ * (bounded and with TTL) and ms-customer pushes an invalidation when a customer is updated or deleted.
+ * <p>
+ * The invalidation is a single HTTP call to order.service.url, so with several ms-order replicas behind a
+ * load balancer only the replica that receives it is evicted; the others (and any replica when the call fails)
+ * keep serving the old name/email until customer.cache.ttl expires. That TTL is the staleness bound: lower it
+ * when running more than one replica and a shorter window matters.
+ */
+@Service
+@Primary
+@Slf4j
+public class CachingCustomerServiceClient implements CustomerServiceClient {
+
+    private final CustomerServiceClientImpl delegate;
+    private final boolean enabled;
+    private final Cache<UUID, CustomerInfo> customersByUserId;
+    private final Cache<UUID, CustomerInfo> customersById;
+
+    public CachingCustomerServiceClient(
+            CustomerServiceClientImpl delegate,
+            MeterRegistry meterRegistry,
+            @Value("${customer.cache.enabled:true}") boolean enabled,
+            @Value("${customer.cache.max-size:10000}") long maxSize,
+            @Value("${customer.cache.ttl:10m}") Duration ttl) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.customersByUserId = buildCache(maxSize, ttl);
+        this.customersById = buildCache(maxSize, ttl);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, customersByUserId, "customers.by-user-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, customersById, "customers.by-id");
+
+        log.info("Customer near-cache enabled: {}, max size: {}, ttl: {}", enabled, maxSize, ttl);
+    }
+
+    @Override
+    public CustomerInfo getCustomerByUserId(UUID userId) {
+        if (!enabled) {
+            return delegate.getCustomerByUserId(userId);
+        }
+
+        CustomerInfo cached = customersByUserId.getIfPresent(userId);
+        if (cached != null) {
+            log.debug("Customer cache hit for user ID: {}", userId);
+            return cached;
+        }
+
+        // Los CustomerNotFoundException no se cachean: el cliente puede crearse en cualquier momento
+        CustomerInfo customerInfo = delegate.getCustomerByUserId(userId);
+        put(customerInfo);
+        return customerInfo;
+    }
+
+    @Override
+    public CustomerInfo getCustomerById(UUID customerId) {
+        if (!enabled) {
+            return delegate.getCustomerById(customerId);
+        }
+
+        CustomerInfo cached = customersById.getIfPresent(customerId);
+        if (cached != null) {
+            log.debug("Customer cache hit for customer ID: {}", customerId);
+            return cached;
+        }
+
+        CustomerInfo customerInfo = delegate.getCustomerById(customerId);
+        put(customerInfo);
+        return customerInfo;
+    }
+
+    /**
+     * Remove a customer from both indexes. Called when ms-customer reports a change.
+     * @param customerId The customer ID (may be null if unknown)
+     * @param userId The user ID (may be null if unknown)
+     */
+    public void invalidate(UUID customerId, UUID userId) {
+        if (customerId != null) {
+            CustomerInfo removed = customersById.asMap().remove(customerId);
+            if (removed != null && removed.userId() != null) {
+                customersByUserId.invalidate(removed.userId());
+            }
+        }
+        if (userId != null) {
+            CustomerInfo removed = customersByUserId.asMap().remove(userId);
+            if (removed != null && removed.customerId() != null) {
+                customersById.invalidate(removed.customerId());
+            }
+        }
+        log.info("Invalidated customer cache for customer ID: {}, user ID: {}", customerId, userId);
+    }
+
+    private void put(CustomerInfo customerInfo) {
+        if (customerInfo.customerId() != null) {
+            customersById.put(customerInfo.customerId(), customerInfo);
+        }
+        if (customerInfo.userId() != null) {
+            customersByUserId.put(customerInfo.userId(), customerInfo);
+        }
+    }
+
+    private static Cache<UUID, CustomerInfo> buildCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -2,11 +2,18 @@ package com.bitcrack.luchoexpress.order_service.infraestructure.clients;
 
 import com.bitcrack.luchoexpress.order_service.application.dto.ProductValidationResponse;
 import com.bitcrack.luchoexpress.order_service.application.service.ProductServiceClient;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,8 +41,45 @@ public class ProductServiceClientImpl implements ProductServiceClient {
             log.warn("Product not found: {}", productId);
             return new ProductValidationResponse(productId, null, null, false);
         } catch (FeignException e) {
+            // Timeout, conexión rechazada o 5xx: no sabemos si el producto existe, no es un 404
             log.error("Error validating product {}: {}", productId, e.getMessage());
-            return new ProductValidationResponse(productId, null, null, false);
+            throw new DependencyUnavailableException("Product service is unavailable", e);
+        }
+    }
+    
+    @Override
+    public Map<UUID, ProductValidationResponse> validateProducts(Collection<UUID> productIds) {
+        Set<UUID> uniqueIds = new LinkedHashSet<>(productIds);
+        Map<UUID, ProductValidationResponse> result = new LinkedHashMap<>();
+        
+        if (uniqueIds.isEmpty()) {
+            return result;
+        }
+        
+        try {
+            log.info("Validating {} products in a single batch", uniqueIds.size());
+            
+            List<ProductServiceFeignClient.ProductDto> products = productServiceFeignClient.getProductsByIds(uniqueIds);
+            
+            for (ProductServiceFeignClient.ProductDto product : products) {
+                result.put(product.id(), new ProductValidationResponse(
+                    product.id(),
+                    product.name(),
+                    product.price(),
+                    true
+                ));
+            }
+        } catch (FeignException e) {
+            // Si la llamada falla no se puede marcar ningún producto como inexistente
+            log.error("Error validating products {}: {}", uniqueIds, e.getMessage());
+            throw new DependencyUnavailableException("Product service is unavailable", e);
+        }
+        
+        // Los productos que no vinieron en una respuesta correcta se marcan como inexistentes
+        for (UUID productId : uniqueIds) {
+            result.computeIfAbsent(productId, id -> new ProductValidationResponse(id, null, null, false));
         }
+        
+        return result;
     }
 }
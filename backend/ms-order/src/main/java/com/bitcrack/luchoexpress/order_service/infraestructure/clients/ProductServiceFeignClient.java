@@ -3,7 +3,11 @@ package com.bitcrack.luchoexpress.order_service.infraestructure.clients;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(name = "product-service", url = "${product.service.url:http://localhost:8085}")
@@ -12,6 +16,9 @@ public interface ProductServiceFeignClient {
     @GetMapping("/api/products/{id}")
     ProductDto getProductById(@PathVariable("id") UUID productId);
     
+    @PostMapping("/api/products/batch")
+    List<ProductDto> getProductsByIds(@RequestBody Collection<UUID> productIds);
+    
     // DTOs for Feign communication
     record ProductDto(
         UUID id,
@@ -0,0 +1,20 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.config;
+
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class FeignHttpClientConfig {
+
+    // Cierra las conexiones keep-alive ociosas antes que el servidor remoto (Tomcat las corta a los 20s por defecto)
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction(
+            @Value("${feign.pool.idle-timeout:15s}") Duration idleTimeout) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Modo trust: autentica con las cabeceras X-Auth-* firmadas por el api-gateway en lugar de decodificar el JWT.
+ * Construye un {@link Jwt} con los mismos claims que emite ms-auth (userId, role/roles, sub), así que
+ * OrderService y JwtAuthenticationConverter funcionan igual que con un token verificado aquí.
+ */
+@RequiredArgsConstructor
+public class GatewayIdentityAuthenticationFilter extends OncePerRequestFilter {
+    
+    // Marca la petición para que el BearerTokenResolver no vuelva a verificar el token
+    public static final String AUTHENTICATED_ATTRIBUTE = "internal-auth.gatewayAuthenticated";
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final InternalIdentityVerifier internalIdentityVerifier;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        var identity = internalIdentityVerifier.verify(request);
+        if (identity.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String authHeader = request.getHeader("Authorization");
+            String tokenValue = authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                    ? authHeader.substring(BEARER_PREFIX.length())
+                    : "gateway";
+            
+            Jwt.Builder jwt = Jwt.withTokenValue(tokenValue)
+                    .header("alg", "none")
+                    .subject(identity.get().username())
+                    .claim("userId", identity.get().userId())
+                    .issuedAt(Instant.now());
+            if (identity.get().roles().size() == 1) {
+                jwt.claim("role", identity.get().roles().get(0));
+            } else {
+                jwt.claim("roles", identity.get().roles());
+            }
+            
+            JwtAuthenticationToken authentication = jwtAuthenticationConverter.convert(jwt.build());
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            request.setAttribute(AUTHENTICATED_ATTRIBUTE, Boolean.TRUE);
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+}
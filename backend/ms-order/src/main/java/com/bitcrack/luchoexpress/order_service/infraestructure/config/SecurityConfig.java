@@ -12,6 +12,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -27,6 +30,7 @@ public class SecurityConfig {
     private String jwtSecret;
     
     private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    private final InternalIdentityVerifier internalIdentityVerifier;
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, CorsConfigurationSource corsConfigurationSource) throws Exception {
@@ -38,6 +42,8 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/orders/by-order-number/{orderNumber}").permitAll()
+                // Internal endpoints - authenticated with X-API-Key by ApiKeyFilter
+                .requestMatchers("/api/orders/internal/**").permitAll()
                 // Protected endpoints - Orders
                 .requestMatchers(HttpMethod.POST, "/api/orders").hasAnyRole("USER", "ADMIN", "ROOT")
                 .requestMatchers(HttpMethod.GET, "/api/orders/me").hasRole("USER")
@@ -49,7 +55,11 @@ public class SecurityConfig {
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
+            // Modo trust: identidad ya verificada por el api-gateway (cabeceras X-Auth-* firmadas)
+            .addFilterBefore(new GatewayIdentityAuthenticationFilter(internalIdentityVerifier, jwtAuthenticationConverter),
+                    BearerTokenAuthenticationFilter.class)
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(bearerTokenResolver())
                 .jwt(jwt -> jwt
                     .decoder(jwtDecoder())
                     .jwtAuthenticationConverter(jwtAuthenticationConverter)
@@ -59,6 +69,16 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * Si el gateway ya autenticó la petición no se extrae el token, así el JWT no se decodifica por segunda vez.
+     */
+    private BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(GatewayIdentityAuthenticationFilter.AUTHENTICATED_ATTRIBUTE) != null
+                ? null
+                : delegate.resolve(request);
+    }
+    
     @Bean
     public JwtDecoder jwtDecoder() {
         // Use HS512 to match ms-auth service with explicit algorithm
@@ -0,0 +1,12 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.exceptions;
+
+public class DependencyUnavailableException extends RuntimeException {
+    
+    public DependencyUnavailableException(String message) {
+        super(message);
+    }
+    
+    public DependencyUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
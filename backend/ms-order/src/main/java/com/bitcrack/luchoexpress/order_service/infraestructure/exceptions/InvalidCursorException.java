@@ -0,0 +1,8 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
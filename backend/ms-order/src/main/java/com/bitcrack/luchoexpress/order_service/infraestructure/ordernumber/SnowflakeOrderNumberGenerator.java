@@ -0,0 +1,124 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.ordernumber;
+
+import com.bitcrack.luchoexpress.order_service.application.service.OrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Números de orden estilo Snowflake: 41 bits de ms desde 2025-01-01 (~69 años), 10 bits de nodo y 12 de secuencia
+ * (4096 números por ms y réplica). Se muestran como ORD- + 13 caracteres Crockford base32 de ancho fijo, así el orden
+ * alfabético coincide con el numérico: crecientes por nodo, ordenados en el tiempo entre nodos (inserts al final
+ * del índice único) y sin caracteres ambiguos (I, L, O, U) al dictarlos.
+ * <p>
+ * La unicidad entre réplicas depende de que cada una tenga un orders.number.node-id distinto (0-1023), por eso es
+ * obligatorio y el servicio no arranca sin él. En un StatefulSet de Kubernetes puede tomarse del ordinal del pod
+ * (ms-order-3 -> 3) activando orders.number.node-id-from-hostname-ordinal; nunca se deriva de un hash del hostname.
+ * Si el reloj retrocede o se agota la secuencia se sigue desde el último valor emitido en lugar de repetir números.
+ */
+@Component
+@Slf4j
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    private static final Pattern HOSTNAME_ORDINAL = Pattern.compile("-(\\d+)$");
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // (ms desde EPOCH_MILLIS << 12) | secuencia del último número emitido
+    private final AtomicLong lastTimestamp = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(
+            @Value("${orders.number.node-id:}") Integer nodeId,
+            @Value("${orders.number.node-id-from-hostname-ordinal:false}") boolean nodeIdFromHostnameOrdinal) {
+        this(resolveNodeId(nodeId, nodeIdFromHostnameOrdinal), System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("orders.number.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        log.info("Order numbers generated with node id {}", nodeId);
+    }
+
+    @Override
+    public String next() {
+        long timestamp = nextTimestamp();
+        long sequence = timestamp & ((1L << SEQUENCE_BITS) - 1);
+        long millis = timestamp >>> SEQUENCE_BITS;
+        return PREFIX + encode(millis << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | sequence);
+    }
+
+    private long nextTimestamp() {
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        while (true) {
+            long last = lastTimestamp.get();
+            // Con la secuencia agotada el +1 pasa al ms siguiente: se adelanta el reloj antes que repetir un número
+            long next = (last >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : last + 1;
+            if (lastTimestamp.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    static int resolveNodeId(Integer nodeId, boolean fromHostnameOrdinal) {
+        if (nodeId != null) {
+            return nodeId;
+        }
+        if (fromHostnameOrdinal) {
+            return nodeIdFromHostnameOrdinal(hostname());
+        }
+        throw new IllegalStateException("orders.number.node-id (ORDER_NUMBER_NODE_ID) must be set to a value between 0 and "
+                + MAX_NODE_ID + " that is unique per ms-order replica, or enable orders.number.node-id-from-hostname-ordinal "
+                + "when running as a StatefulSet");
+    }
+
+    static int nodeIdFromHostnameOrdinal(String hostname) {
+        Matcher ordinal = HOSTNAME_ORDINAL.matcher(hostname);
+        if (!ordinal.find() || ordinal.group(1).length() > 4 || Integer.parseInt(ordinal.group(1)) > MAX_NODE_ID) {
+            throw new IllegalStateException("Hostname '" + hostname + "' does not end with a StatefulSet ordinal between 0 and "
+                    + MAX_NODE_ID + "; set orders.number.node-id (ORDER_NUMBER_NODE_ID) instead");
+        }
+        return Integer.parseInt(ordinal.group(1));
+    }
+
+    private static String hostname() {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
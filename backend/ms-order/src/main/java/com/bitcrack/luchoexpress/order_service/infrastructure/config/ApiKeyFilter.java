@@ -62,7 +62,8 @@ public class ApiKeyFilter implements Filter {
     private boolean shouldApplyApiKeyFilter(String requestURI, String method) {
         // Aplicar filtro solo a endpoints específicos de comunicación entre microservicios
         return (requestURI.matches("/api/orders/[0-9a-fA-F-]+") && "GET".equals(method)) ||  // GET /api/orders/{orderId}
-               (requestURI.matches("/api/orders/by-order-number/.*") && "GET".equals(method)); // GET /api/orders/by-order-number/{orderNumber}
+               (requestURI.matches("/api/orders/by-order-number/.*") && "GET".equals(method)) || // GET /api/orders/by-order-number/{orderNumber}
+               requestURI.startsWith("/api/orders/internal/"); // Endpoints internos (p. ej. invalidación de cache de clientes)
     }
     
     private void sendUnauthorizedResponse(HttpServletResponse response, String message) throws IOException {
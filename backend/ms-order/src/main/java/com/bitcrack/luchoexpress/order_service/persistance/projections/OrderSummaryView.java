@@ -0,0 +1,34 @@
+package com.bitcrack.luchoexpress.order_service.persistance.projections;
+
+import com.bitcrack.luchoexpress.order_service.domain.OrderStatusEnum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección de una orden sin sus líneas: se lee solo de la tabla orders, sin cargar order_products.
+ */
+public interface OrderSummaryView {
+    
+    UUID getId();
+    
+    String getOrderNumber();
+    
+    UUID getCustomerId();
+    
+    String getDeliveryAddress();
+    
+    OrderStatusEnum getStatus();
+    
+    LocalDate getOrderDate();
+    
+    LocalDate getEstimatedDeliveryDate();
+    
+    BigDecimal getTotalAmount();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getUpdatedAt();
+}
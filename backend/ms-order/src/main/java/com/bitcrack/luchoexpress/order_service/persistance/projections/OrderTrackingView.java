@@ -0,0 +1,22 @@
+package com.bitcrack.luchoexpress.order_service.persistance.projections;
+
+import com.bitcrack.luchoexpress.order_service.domain.OrderStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de seguimiento de una orden (lo que guarda ms-tracking-orders), leído solo de la tabla orders.
+ */
+public interface OrderTrackingView {
+    
+    UUID getId();
+    
+    String getOrderNumber();
+    
+    UUID getCustomerId();
+    
+    OrderStatusEnum getStatus();
+    
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.bitcrack.luchoexpress.order_service.persistance.projections;
+
+import java.util.UUID;
+
+/**
+ * Número de órdenes que incluyen un producto, agregado sobre order_products.
+ */
+public interface ProductOrderCountView {
+    
+    UUID getProductId();
+    
+    long getOrderCount();
+}
@@ -1,7 +1,11 @@
 package com.bitcrack.luchoexpress.order_service.persistance.repositories;
 
 import com.bitcrack.luchoexpress.order_service.domain.OrderProduct;
+import com.bitcrack.luchoexpress.order_service.domain.OrderStatusEnum;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.ProductOrderCountView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +17,9 @@ public interface OrderProductRepository extends JpaRepository<OrderProduct, UUID
     List<OrderProduct> findByOrderId(UUID orderId);
     
     void deleteByOrderId(UUID orderId);
+    
+    // Una fila por producto; cuenta órdenes distintas por si un producto aparece en varias líneas de la misma orden
+    @Query("SELECT op.productId AS productId, COUNT(DISTINCT op.order.id) AS orderCount " +
+           "FROM OrderProduct op WHERE op.order.status <> :excludedStatus GROUP BY op.productId")
+    List<ProductOrderCountView> countOrdersByProduct(@Param("excludedStatus") OrderStatusEnum excludedStatus);
 }
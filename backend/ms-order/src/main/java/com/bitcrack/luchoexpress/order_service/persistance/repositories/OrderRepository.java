@@ -1,9 +1,16 @@
 package com.bitcrack.luchoexpress.order_service.persistance.repositories;
 
 import com.bitcrack.luchoexpress.order_service.domain.Order;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.OrderSummaryView;
+import com.bitcrack.luchoexpress.order_service.persistance.projections.OrderTrackingView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,4 +25,35 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     List<Order> findAllByOrderByCreatedAtDesc();
     
     Optional<Order> findByOrderNumber(String orderNumber);
+    
+    // Tracking en lote para ms-tracking-orders: una consulta sobre el índice único de order_number, sin order_products
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.customerId AS customerId, " +
+           "o.status AS status, o.updatedAt AS updatedAt " +
+           "FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<OrderTrackingView> findTrackingByOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+    
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.customerId AS customerId, " +
+           "o.status AS status, o.updatedAt AS updatedAt " +
+           "FROM Order o WHERE o.orderNumber IN :orderNumbers AND o.customerId = :customerId")
+    List<OrderTrackingView> findTrackingByOrderNumbersAndCustomerId(@Param("orderNumbers") Collection<String> orderNumbers,
+                                                                    @Param("customerId") UUID customerId);
+    
+    // Keyset pagination sobre (createdAt, id) usando idx_orders_created_at_id; no toca order_products
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.customerId AS customerId, " +
+           "o.deliveryAddress AS deliveryAddress, o.status AS status, o.orderDate AS orderDate, " +
+           "o.estimatedDeliveryDate AS estimatedDeliveryDate, o.totalAmount AS totalAmount, " +
+           "o.createdAt AS createdAt, o.updatedAt AS updatedAt " +
+           "FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findSummaries(Limit limit);
+    
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.customerId AS customerId, " +
+           "o.deliveryAddress AS deliveryAddress, o.status AS status, o.orderDate AS orderDate, " +
+           "o.estimatedDeliveryDate AS estimatedDeliveryDate, o.totalAmount AS totalAmount, " +
+           "o.createdAt AS createdAt, o.updatedAt AS updatedAt " +
+           "FROM Order o " +
+           "WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") UUID id,
+                                               Limit limit);
 }
@@ -0,0 +1,39 @@
+package com.bitcrack.luchoexpress.order_service.persistance.repositories;
+
+import com.bitcrack.luchoexpress.order_service.domain.TrackingOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TrackingOutboxRepository extends JpaRepository<TrackingOutboxEvent, UUID> {
+
+    /**
+     * Eventos vencidos bloqueados con SELECT ... FOR UPDATE SKIP LOCKED: las filas que otra réplica está reclamando
+     * se saltan en lugar de esperar o entregarse dos veces. Debe llamarse dentro de una transacción.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT e FROM TrackingOutboxEvent e WHERE e.nextAttemptAt <= :now ORDER BY e.createdAt ASC")
+    List<TrackingOutboxEvent> findDueForUpdateSkipLocked(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Un evento entregado deja obsoletos los anteriores de la misma orden (incluidos los que estén en backoff)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TrackingOutboxEvent e WHERE e.orderId = :orderId AND (e.id = :id OR e.createdAt < :createdAt)")
+    int deleteDeliveredUpTo(@Param("orderId") UUID orderId, @Param("id") UUID id, @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,33 @@
+package com.bitcrack.luchoexpress.order_service.presentation;
+
+import com.bitcrack.luchoexpress.order_service.infraestructure.clients.CachingCustomerServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Endpoints internos para comunicación entre microservicios (protegidos por X-API-Key en ApiKeyFilter).
+ */
+@RestController
+@RequestMapping("/api/orders/internal")
+@RequiredArgsConstructor
+@Slf4j
+public class InternalCacheController {
+    
+    private final CachingCustomerServiceClient cachingCustomerServiceClient;
+    
+    @PostMapping("/customer-cache/invalidate")
+    public ResponseEntity<Void> invalidateCustomer(@RequestBody CustomerInvalidationRequest request) {
+        log.info("Received customer cache invalidation for customer: {}, user: {}", request.customerId(), request.userId());
+        cachingCustomerServiceClient.invalidate(request.customerId(), request.userId());
+        return ResponseEntity.noContent().build();
+    }
+    
+    public record CustomerInvalidationRequest(
+        UUID customerId,
+        UUID userId
+    ) {}
+}
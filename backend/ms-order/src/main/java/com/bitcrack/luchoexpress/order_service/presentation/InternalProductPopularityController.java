@@ -0,0 +1,30 @@
+package com.bitcrack.luchoexpress.order_service.presentation;
+
+import com.bitcrack.luchoexpress.order_service.application.service.ProductPopularityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Endpoints internos para ms-products (protegidos por X-API-Key en ApiKeyFilter).
+ */
+@RestController
+@RequestMapping("/api/orders/internal")
+@RequiredArgsConstructor
+public class InternalProductPopularityController {
+    
+    private final ProductPopularityService productPopularityService;
+    
+    /**
+     * Número de órdenes por producto, que ms-products usa para ordenar el autocompletado.
+     */
+    @GetMapping("/product-popularity")
+    public ResponseEntity<Map<UUID, Long>> getProductPopularity() {
+        return ResponseEntity.ok(productPopularityService.getOrderCountsByProduct());
+    }
+}
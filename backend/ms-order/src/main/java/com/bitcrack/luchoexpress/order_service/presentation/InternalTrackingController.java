@@ -0,0 +1,38 @@
+package com.bitcrack.luchoexpress.order_service.presentation;
+
+import com.bitcrack.luchoexpress.order_service.application.dto.OrderTrackingResponse;
+import com.bitcrack.luchoexpress.order_service.application.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Endpoints internos para ms-tracking-orders (protegidos por X-API-Key en ApiKeyFilter).
+ */
+@RestController
+@RequestMapping("/api/orders/internal")
+@RequiredArgsConstructor
+@Slf4j
+public class InternalTrackingController {
+    
+    private final OrderService orderService;
+    
+    /**
+     * Tracking de un lote de órdenes en una sola consulta. Con userId solo se devuelven las de ese usuario.
+     */
+    @PostMapping("/tracking")
+    public ResponseEntity<List<OrderTrackingResponse>> getTracking(@RequestBody TrackingLookupRequest request) {
+        List<String> orderNumbers = request.orderNumbers() != null ? request.orderNumbers() : List.of();
+        log.debug("Tracking lookup for {} orders, user: {}", orderNumbers.size(), request.userId());
+        return ResponseEntity.ok(orderService.getTrackingByOrderNumbers(orderNumbers, request.userId()));
+    }
+    
+    public record TrackingLookupRequest(
+        UUID userId,
+        List<String> orderNumbers
+    ) {}
+}
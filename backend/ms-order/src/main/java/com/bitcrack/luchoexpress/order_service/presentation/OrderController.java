@@ -1,6 +1,7 @@
 package com.bitcrack.luchoexpress.order_service.presentation;
 
 import com.bitcrack.luchoexpress.order_service.application.dto.CreateOrderRequest;
+import com.bitcrack.luchoexpress.order_service.application.dto.OrderPageResponse;
 import com.bitcrack.luchoexpress.order_service.application.dto.OrderResponse;
 import com.bitcrack.luchoexpress.order_service.application.dto.UpdateOrderRequest;
 import com.bitcrack.luchoexpress.order_service.application.service.OrderService;
@@ -46,10 +47,13 @@ public class OrderController {
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('ROOT')")
-    public ResponseEntity<List<OrderResponse>> getAllOrders(Authentication authentication) {
-        log.info("Fetching all orders");
-        List<OrderResponse> orders = orderService.getAllOrders(authentication);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPageResponse> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        log.info("Fetching orders page");
+        OrderPageResponse page = orderService.getAllOrders(authentication, cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/{id}")
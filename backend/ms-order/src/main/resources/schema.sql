@@ -5,7 +5,7 @@ USE order_db;
 -- Orders table
 CREATE TABLE IF NOT EXISTS orders (
     id BINARY(16) PRIMARY KEY,
-    order_number VARCHAR(255) NOT NULL UNIQUE,
+    order_number VARCHAR(255) NOT NULL,
     customer_id BINARY(16) NOT NULL,
     delivery_address TEXT NOT NULL,
     status ENUM('PENDING', 'SHIPPED', 'DELIVERED', 'CANCELLED') NOT NULL DEFAULT 'PENDING',
@@ -16,7 +16,9 @@ CREATE TABLE IF NOT EXISTS orders (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_customer_id (customer_id),
     INDEX idx_order_date (order_date),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_orders_created_at_id (created_at, id),
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number)
 );
 
 -- Order products table
@@ -31,3 +33,19 @@ CREATE TABLE IF NOT EXISTS order_products (
     INDEX idx_order_id (order_id),
     INDEX idx_product_id (product_id)
 );
+
+-- Outbox de notificaciones de tracking (se escribe en la misma transacción que la orden)
+CREATE TABLE IF NOT EXISTS tracking_outbox (
+    id BINARY(16) PRIMARY KEY,
+    order_id BINARY(16) NOT NULL,
+    order_number VARCHAR(255) NOT NULL,
+    customer_id BINARY(16) NOT NULL,
+    status ENUM('PENDING', 'SHIPPED', 'DELIVERED', 'CANCELLED') NOT NULL,
+    order_updated_at DATETIME(6) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at DATETIME(6) NOT NULL,
+    INDEX idx_tracking_outbox_next_attempt (next_attempt_at),
+    INDEX idx_tracking_outbox_order_id (order_id)
+);
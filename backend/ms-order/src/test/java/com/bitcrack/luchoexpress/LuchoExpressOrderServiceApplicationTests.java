@@ -3,7 +3,7 @@ package com.bitcrack.luchoexpress;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "orders.number.node-id=0")
 class LuchoExpressOrderServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,30 @@
+package com.bitcrack.luchoexpress.order_service.application.dto;
+
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+    
+    @Test
+    void shouldRoundTripThroughToken() {
+        // Given
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123456000), UUID.randomUUID());
+        
+        // When
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+        
+        // Then
+        assertEquals(cursor, decoded);
+    }
+    
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThrows(InvalidCursorException.class, () -> OrderCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> OrderCursor.decode("%%%"));
+    }
+}
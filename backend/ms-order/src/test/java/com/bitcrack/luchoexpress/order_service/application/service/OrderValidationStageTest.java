@@ -0,0 +1,148 @@
+package com.bitcrack.luchoexpress.order_service.application.service;
+
+import com.bitcrack.luchoexpress.order_service.application.dto.ProductValidationResponse;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.ProductNotFoundException;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.UnauthorizedAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderValidationStageTest {
+
+    private OrderValidationStage stage;
+
+    @AfterEach
+    void tearDown() {
+        stage.destroy();
+    }
+
+    @Test
+    void shouldRunCustomerCheckAndProductBatchesConcurrently() {
+        // Given: 3 lotes de productos y el chequeo del cliente, cada llamada tarda 300 ms
+        FakeProductServiceClient products = new FakeProductServiceClient(300, Set.of());
+        stage = stage(products, Duration.ofSeconds(5), 2);
+        List<UUID> productIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        // When
+        long start = System.nanoTime();
+        Map<UUID, ProductValidationResponse> infos = stage.validate(() -> sleep(300), productIds);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then: ~ la llamada más lenta, no la suma (4 x 300 ms)
+        assertEquals(3, products.calls.get());
+        assertEquals(Set.copyOf(productIds), infos.keySet());
+        assertTrue(elapsedMillis < 900, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void shouldFailFastOnMissingProduct() {
+        // Given
+        UUID missing = UUID.randomUUID();
+        stage = stage(new FakeProductServiceClient(50, Set.of(missing)), Duration.ofSeconds(5), 50);
+
+        // When
+        long start = System.nanoTime();
+        ProductNotFoundException ex = assertThrows(ProductNotFoundException.class,
+                () -> stage.validate(() -> sleep(3000), List.of(UUID.randomUUID(), missing)));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then: no espera al chequeo del cliente
+        assertTrue(ex.getMessage().contains(missing.toString()));
+        assertTrue(elapsedMillis < 1500, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void shouldPropagateCustomerCheckFailure() {
+        // Given
+        stage = stage(new FakeProductServiceClient(0, Set.of()), Duration.ofSeconds(5), 50);
+
+        // When / Then
+        assertThrows(UnauthorizedAccessException.class, () -> stage.validate(() -> {
+            throw new UnauthorizedAccessException("You can only create orders for yourself");
+        }, List.of(UUID.randomUUID())));
+    }
+
+    @Test
+    void shouldEnforceDeadline() {
+        // Given
+        stage = stage(new FakeProductServiceClient(2000, Set.of()), Duration.ofMillis(200), 50);
+
+        // When / Then
+        long start = System.nanoTime();
+        assertThrows(DependencyUnavailableException.class, () -> stage.validate(null, List.of(UUID.randomUUID())));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+    }
+
+    @Test
+    void shouldReportProductServiceOutageAsUnavailableNotAsMissingProduct() {
+        // Given: ms-products caído (el cliente convierte timeouts/5xx en DependencyUnavailableException)
+        stage = stage(new ProductServiceClient() {
+            @Override
+            public ProductValidationResponse validateProduct(UUID productId) {
+                throw new DependencyUnavailableException("Product service is unavailable");
+            }
+
+            @Override
+            public Map<UUID, ProductValidationResponse> validateProducts(Collection<UUID> productIds) {
+                throw new DependencyUnavailableException("Product service is unavailable");
+            }
+        }, Duration.ofSeconds(5), 50);
+
+        // When / Then: 503, no 404
+        assertThrows(DependencyUnavailableException.class, () -> stage.validate(null, List.of(UUID.randomUUID())));
+    }
+
+    private static OrderValidationStage stage(ProductServiceClient products, Duration timeout, int batchSize) {
+        return new OrderValidationStage(products, new SimpleMeterRegistry(), new MockEnvironment(), 8, 16, timeout, batchSize);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class FakeProductServiceClient implements ProductServiceClient {
+
+        private final long latencyMillis;
+        private final Set<UUID> missing;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeProductServiceClient(long latencyMillis, Set<UUID> missing) {
+            this.latencyMillis = latencyMillis;
+            this.missing = missing;
+        }
+
+        @Override
+        public ProductValidationResponse validateProduct(UUID productId) {
+            return validateProducts(List.of(productId)).get(productId);
+        }
+
+        @Override
+        public Map<UUID, ProductValidationResponse> validateProducts(Collection<UUID> productIds) {
+            calls.incrementAndGet();
+            sleep(latencyMillis);
+            Map<UUID, ProductValidationResponse> result = new LinkedHashMap<>();
+            for (UUID id : productIds) {
+                result.put(id, new ProductValidationResponse(id, "Product", BigDecimal.TEN, !missing.contains(id)));
+            }
+            return result;
+        }
+    }
+}
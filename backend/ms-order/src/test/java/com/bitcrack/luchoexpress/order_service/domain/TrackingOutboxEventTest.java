@@ -0,0 +1,60 @@
+package com.bitcrack.luchoexpress.order_service.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingOutboxEventTest {
+    
+    @Test
+    void shouldSnapshotOrderState() {
+        // Given
+        Order order = new Order(UUID.randomUUID(), "Test Address", LocalDate.now().plusDays(7));
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-12345678");
+        order.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        order.cancel();
+        
+        // When
+        TrackingOutboxEvent event = TrackingOutboxEvent.of(order);
+        
+        // Then
+        assertEquals(order.getId(), event.getOrderId());
+        assertEquals("ORD-12345678", event.getOrderNumber());
+        assertEquals(order.getCustomerId(), event.getCustomerId());
+        assertEquals(OrderStatusEnum.CANCELLED, event.getStatus());
+        assertEquals(order.getUpdatedAt(), event.getOrderUpdatedAt());
+        assertEquals(0, event.getAttempts());
+        assertNotNull(event.getNextAttemptAt());
+    }
+    
+    @Test
+    void shouldBackOffExponentiallyUpToMax() {
+        // Given
+        TrackingOutboxEvent event = new TrackingOutboxEvent();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Duration initial = Duration.ofSeconds(1);
+        Duration max = Duration.ofSeconds(10);
+        
+        // When / Then
+        event.scheduleRetry("down", initial, max, now);
+        assertEquals(now.plusSeconds(1), event.getNextAttemptAt());
+        
+        event.scheduleRetry("down", initial, max, now);
+        assertEquals(now.plusSeconds(2), event.getNextAttemptAt());
+        
+        event.scheduleRetry("down", initial, max, now);
+        assertEquals(now.plusSeconds(4), event.getNextAttemptAt());
+        
+        event.scheduleRetry("down", initial, max, now);
+        event.scheduleRetry("down", initial, max, now);
+        assertEquals(now.plusSeconds(10), event.getNextAttemptAt());
+        assertEquals(5, event.getAttempts());
+        assertEquals("down", event.getLastError());
+    }
+}
@@ -0,0 +1,87 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.clients;
+
+import com.bitcrack.luchoexpress.order_service.application.dto.ProductValidationResponse;
+import com.bitcrack.luchoexpress.order_service.infraestructure.exceptions.DependencyUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductServiceClientImplTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST, "/api/products/batch",
+            Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+
+    @Test
+    void shouldMarkOnlyProductsMissingFromTheBatchAsNonExistent() {
+        // Given
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        ProductServiceClientImpl client = client(ids -> List.of(product(found)));
+
+        // When
+        Map<UUID, ProductValidationResponse> result = client.validateProducts(List.of(found, missing));
+
+        // Then
+        assertTrue(result.get(found).isExists());
+        assertFalse(result.get(missing).isExists());
+    }
+
+    @Test
+    void shouldTreatSingleProductNotFoundAsNonExistent() {
+        // Given
+        ProductServiceClientImpl client = client(ids -> {
+            throw new FeignException.NotFound("Not Found", REQUEST, null, null);
+        });
+
+        // When / Then
+        assertFalse(client.validateProduct(UUID.randomUUID()).isExists());
+    }
+
+    @Test
+    void shouldRaiseDependencyUnavailableOnServerErrorOrTimeout() {
+        // Given
+        ProductServiceClientImpl unavailable = client(ids -> {
+            throw new FeignException.ServiceUnavailable("Service Unavailable", REQUEST, null, null);
+        });
+        ProductServiceClientImpl timingOut = client(ids -> {
+            throw new RetryableException(-1, "Read timed out", Request.HttpMethod.POST, (Long) null, REQUEST);
+        });
+        List<UUID> ids = List.of(UUID.randomUUID());
+
+        // When / Then: ningún producto se da por inexistente si ms-products no respondió
+        assertThrows(DependencyUnavailableException.class, () -> unavailable.validateProducts(ids));
+        assertThrows(DependencyUnavailableException.class, () -> unavailable.validateProduct(ids.get(0)));
+        assertThrows(DependencyUnavailableException.class, () -> timingOut.validateProducts(ids));
+        assertThrows(DependencyUnavailableException.class, () -> timingOut.validateProduct(ids.get(0)));
+    }
+
+    // El mismo comportamiento para la llamada individual y la de lote
+    private static ProductServiceClientImpl client(Function<Collection<UUID>, List<ProductServiceFeignClient.ProductDto>> products) {
+        return new ProductServiceClientImpl(new ProductServiceFeignClient() {
+            @Override
+            public ProductDto getProductById(UUID productId) {
+                return products.apply(List.of(productId)).get(0);
+            }
+
+            @Override
+            public List<ProductDto> getProductsByIds(Collection<UUID> productIds) {
+                return products.apply(productIds);
+            }
+        });
+    }
+
+    private static ProductServiceFeignClient.ProductDto product(UUID id) {
+        return new ProductServiceFeignClient.ProductDto(id, "Product", BigDecimal.TEN, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+
+import static com.bitcrack.luchoexpress.order_service.infraestructure.config.InternalIdentityVerifierTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayIdentityAuthenticationFilterTest {
+
+    private final GatewayIdentityAuthenticationFilter filter =
+            new GatewayIdentityAuthenticationFilter(verifierAt(ISSUED_AT), new JwtAuthenticationConverter());
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateWithSameClaimsAsVerifiedJwt() throws Exception {
+        // Given
+        MockHttpServletRequest request = signedRequest(USER_ID, USERNAME, MULTI_ROLES, ISSUED_AT, MULTI_ROLES_SIGNATURE);
+        request.addHeader("Authorization", "Bearer original-token");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then: OrderService lee userId/sub del Jwt y el BearerTokenResolver se salta la decodificación
+        JwtAuthenticationToken authentication = (JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(USER_ID, authentication.getToken().getClaimAsString("userId"));
+        assertEquals(USERNAME, authentication.getName());
+        assertEquals("original-token", authentication.getToken().getTokenValue());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals(Boolean.TRUE, request.getAttribute(GatewayIdentityAuthenticationFilter.AUTHENTICATED_ATTRIBUTE));
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void shouldMapSingleRoleToRoleClaim() throws Exception {
+        // When
+        filter.doFilter(signedRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        JwtAuthenticationToken authentication = (JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(ROLES, authentication.getToken().getClaimAsString("role"));
+        assertEquals(List.of("ROLE_USER"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void shouldLeaveTamperedHeadersToJwtVerification() throws Exception {
+        // Given
+        MockHttpServletRequest request = signedRequest(USER_ID, USERNAME, "ADMIN", ISSUED_AT, SIGNATURE);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then: sin autenticación ni marca, el Authorization se verifica como siempre
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(request.getAttribute(GatewayIdentityAuthenticationFilter.AUTHENTICATED_ATTRIBUTE));
+        assertSame(request, chain.getRequest());
+    }
+}
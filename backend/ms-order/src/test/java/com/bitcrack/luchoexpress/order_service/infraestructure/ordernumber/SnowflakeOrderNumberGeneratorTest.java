@@ -0,0 +1,140 @@
+package com.bitcrack.luchoexpress.order_service.infraestructure.ordernumber;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + Duration.ofDays(400).toMillis();
+
+    @Test
+    void shouldGenerateFixedWidthReadableNumbers() {
+        // Given
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, () -> NOW);
+
+        // When
+        String orderNumber = generator.next();
+
+        // Then
+        assertTrue(orderNumber.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"), orderNumber);
+    }
+
+    @Test
+    void shouldStayOrderedWhenSequenceOverflowsOrClockGoesBack() {
+        // Given: reloj congelado más allá de la secuencia de un ms, y luego retrocediendo
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock::get);
+        String previous = generator.next();
+
+        // When / Then
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-Duration.ofSeconds(5).toMillis());
+            }
+            String next = generator.next();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldNotCollideBetweenNodesInTheSameMillisecond() {
+        // Given
+        SnowflakeOrderNumberGenerator node1 = new SnowflakeOrderNumberGenerator(1, () -> NOW);
+        SnowflakeOrderNumberGenerator node2 = new SnowflakeOrderNumberGenerator(2, () -> NOW);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        // When
+        for (int i = 0; i < 4096; i++) {
+            numbers.add(node1.next());
+            numbers.add(node2.next());
+        }
+
+        // Then
+        assertEquals(2 * 4096, numbers.size());
+    }
+
+    @Test
+    void shouldBeUniqueAndMonotonicAcrossThreads() throws InterruptedException {
+        // Given
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 100_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        List<String> errors = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                String previous = "";
+                for (int i = 0; i < perThread; i++) {
+                    String next = generator.next();
+                    numbers.add(next);
+                    if (next.compareTo(previous) <= 0) {
+                        synchronized (errors) {
+                            errors.add(previous + " >= " + next);
+                        }
+                    }
+                    previous = next;
+                }
+            }));
+        }
+
+        // When
+        long begin = System.nanoTime();
+        workers.forEach(Thread::start);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedMillis = Math.max(1, Duration.ofNanos(System.nanoTime() - begin).toMillis());
+
+        // Then
+        assertEquals(List.of(), errors);
+        assertEquals(threads * perThread, numbers.size());
+        log.info("{} order numbers from {} threads in {} ms ({}/s)",
+                numbers.size(), threads, elapsedMillis, numbers.size() * 1000L / elapsedMillis);
+    }
+
+    @Test
+    void shouldRequireExplicitNodeIdUnlessOrdinalIsEnabled() {
+        assertEquals(5, SnowflakeOrderNumberGenerator.resolveNodeId(5, false));
+        assertEquals(5, SnowflakeOrderNumberGenerator.resolveNodeId(5, true));
+        assertThrows(IllegalStateException.class, () -> SnowflakeOrderNumberGenerator.resolveNodeId(null, false));
+    }
+
+    @Test
+    void shouldTakeNodeIdOnlyFromStatefulSetOrdinal() {
+        assertEquals(3, SnowflakeOrderNumberGenerator.nodeIdFromHostnameOrdinal("ms-order-3"));
+
+        // Sin ordinal válido (id de contenedor, ordinal fuera de rango) no arranca en lugar de inventar un nodo
+        assertThrows(IllegalStateException.class,
+                () -> SnowflakeOrderNumberGenerator.nodeIdFromHostnameOrdinal("ms-orders-lucho-express"));
+        assertThrows(IllegalStateException.class,
+                () -> SnowflakeOrderNumberGenerator.nodeIdFromHostnameOrdinal("3f9a1c2b7d4e"));
+        assertThrows(IllegalStateException.class,
+                () -> SnowflakeOrderNumberGenerator.nodeIdFromHostnameOrdinal("ms-order-1024"));
+    }
+
+    @Test
+    void shouldRejectOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(1024, () -> NOW));
+    }
+}
@@ -0,0 +1,109 @@
+package com.bitcrack.luchoexpress.order_service.persistance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de inserción: UUIDv4 (GenerationType.UUID, el esquema anterior) frente a UuidV7Generator,
+ * sobre dos tablas iguales con clave primaria BINARY(16) como orders. Solo se ejecuta contra una base real:
+ * <pre>
+ * mvn test -Dtest=UuidKeyInsertBenchmarkTest \
+ *   -Dbenchmark.jdbc-url="jdbc:mysql://localhost:3307/orders_db?rewriteBatchedStatements=true" \
+ *   -Dbenchmark.user=admin -Dbenchmark.password=admin -Dbenchmark.rows=2000000 -Dbenchmark.warmup-rows=20000
+ * </pre>
+ * La diferencia aparece cuando el índice deja de caber en el buffer pool: con v4 cada insert toca una hoja al azar,
+ * con v7 siempre la última. Por eso se registra el ritmo de cada tramo además del total.
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+@Slf4j
+class UuidKeyInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPORTED_SEGMENTS = 10;
+
+    @Test
+    void compareInsertThroughput() throws SQLException {
+        int rows = Integer.getInteger("benchmark.rows", 500_000);
+        int warmupRows = Integer.getInteger("benchmark.warmup-rows", 20_000);
+
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.jdbc-url"),
+                System.getProperty("benchmark.user", "admin"), System.getProperty("benchmark.password", "admin"))) {
+            connection.setAutoCommit(false);
+
+            // Calentamiento (JIT, driver, caché de sentencias) para no penalizar al primero que se mide
+            run(connection, "bench_uuid_v4", UUID::randomUUID, warmupRows, false);
+            run(connection, "bench_uuid_v7", UuidV7Generator::generate, warmupRows, false);
+
+            double v4 = run(connection, "bench_uuid_v4", UUID::randomUUID, rows, true);
+            double v7 = run(connection, "bench_uuid_v7", UuidV7Generator::generate, rows, true);
+
+            log.info("UUIDv4: {} rows/s, UUIDv7: {} rows/s (x{})",
+                    Math.round(v4), Math.round(v7), String.format("%.2f", v7 / v4));
+        }
+    }
+
+    private static double run(Connection connection, String table, Supplier<UUID> ids, int rows, boolean report) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " (id BINARY(16) PRIMARY KEY, payload VARCHAR(255) NOT NULL)");
+            connection.commit();
+        }
+
+        String payload = "x".repeat(200);
+        int segmentRows = Math.max(BATCH_SIZE, rows / REPORTED_SEGMENTS);
+        long start = System.nanoTime();
+        long segmentStart = start;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (id, payload) VALUES (?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setBytes(1, toBytes(ids.get()));
+                insert.setString(2, payload);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (report && i % segmentRows == 0) {
+                    long now = System.nanoTime();
+                    log.info("{}: rows {}-{} at {} rows/s", table, i - segmentRows + 1, i, Math.round(rate(segmentRows, now - segmentStart)));
+                    segmentStart = now;
+                }
+            }
+        }
+        double total = rate(rows, System.nanoTime() - start);
+
+        try (Statement check = connection.createStatement()) {
+            try (ResultSet count = check.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                count.next();
+                assertEquals(rows, count.getLong(1));
+            }
+            check.execute("DROP TABLE " + table);
+            connection.commit();
+        }
+        return total;
+    }
+
+    // Mismo orden de bytes que Hibernate al guardar un UUID en BINARY(16): msb primero, big-endian
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static double rate(long rows, long nanos) {
+        return rows * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bitcrack.luchoexpress.order_service.persistance;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El mismo test está en ms-auth, ms-customer y ms-products (una copia por cada copia de UuidV7Generator):
+ * NOW/NOW_PREFIX es el vector compartido y, si cambia, cambia en todos.
+ */
+class UuidV7GeneratorTest {
+
+    static final long NOW = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    // 48 bits de timestamp de NOW en hexadecimal seguidos de la versión 7
+    static final String NOW_PREFIX = "019b76da-a800-7";
+
+    @Test
+    void shouldSetVersionVariantAndTimestamp() {
+        // Given: instancia propia con reloj fijo, sin estado compartido con otros tests
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+
+        // When
+        UUID id = generator.next();
+
+        // Then
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+        assertTrue(id.toString().startsWith(NOW_PREFIX), id.toString());
+    }
+
+    @Test
+    void shouldBeStrictlyIncreasingInBinaryOrder() {
+        // Given: BINARY(16) compara byte a byte sin signo, igual que los longs sin signo msb/lsb.
+        // Reloj congelado (agota el contador del ms) y luego retrocediendo
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+        UUID previous = generator.next();
+
+        // When / Then
+        for (int i = 0; i < 100_000; i++) {
+            if (i == 50_000) {
+                clock.addAndGet(-Duration.ofSeconds(5).toMillis());
+            }
+            UUID next = generator.next();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldBeUniqueAcrossThreads() throws InterruptedException {
+        // Given
+        UuidV7Generator generator = new UuidV7Generator(System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 50_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.next());
+                }
+            }));
+        }
+
+        // When
+        workers.forEach(Thread::start);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void shouldGenerateFromSharedInstance() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID first = UuidV7Generator.generate();
+        UUID second = UuidV7Generator.generate();
+
+        // Then: el timestamp nunca es anterior al reloj (el contador puede adelantarlo, no atrasarlo)
+        assertEquals(7, first.version());
+        assertTrue((first.getMostSignificantBits() >>> 16) >= before);
+        assertTrue(Long.compareUnsigned(second.getMostSignificantBits(), first.getMostSignificantBits()) > 0);
+    }
+}
@@ -3,9 +3,11 @@ package com.bitcrack.luchoexpress.lucho_express_products;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
 public class LuchoExpressProductsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponse {
+    
+    private List<ProductResponse> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
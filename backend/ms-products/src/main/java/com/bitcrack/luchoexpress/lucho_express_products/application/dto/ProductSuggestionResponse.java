@@ -0,0 +1,16 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionResponse {
+    
+    private UUID id;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.event;
+
+import java.util.UUID;
+
+/**
+ * Publicado cuando se crea o modifica un producto o una categoría.
+ * Las vistas derivadas del catálogo (snapshot público, índices en memoria) se recalculan al confirmarse la transacción.
+ */
+public record CatalogChangedEvent(
+    EntityType entityType,
+    UUID entityId
+) {
+    
+    public enum EntityType {
+        PRODUCT,
+        CATEGORY
+    }
+}
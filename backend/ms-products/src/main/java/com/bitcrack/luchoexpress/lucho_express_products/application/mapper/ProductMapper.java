@@ -1,5 +1,6 @@
 package com.bitcrack.luchoexpress.lucho_express_products.application.mapper;
 
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.CategoryResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.CreateProductRequest;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.UpdateProductRequest;
@@ -24,7 +25,16 @@ public class ProductMapper {
     }
     
     public ProductResponse toResponse(Product product) {
-        ProductResponse response = new ProductResponse(
+        // Include category if it's loaded
+        CategoryResponse category = product.getCategory() != null
+                ? categoryMapper.toResponse(product.getCategory())
+                : null;
+        return toResponse(product, category);
+    }
+    
+    // Para listados agrupados por categoría: reutiliza la CategoryResponse ya construida en vez de mapearla por producto
+    public ProductResponse toResponse(Product product, CategoryResponse category) {
+        return new ProductResponse(
             product.getId(),
             product.getCategoryId(),
             product.getName(),
@@ -33,15 +43,8 @@ public class ProductMapper {
             product.getPrice(),
             product.getCreatedAt(),
             product.getUpdatedAt(),
-            null
+            category
         );
-        
-        // Include category if it's loaded
-        if (product.getCategory() != null) {
-            response.setCategory(categoryMapper.toResponse(product.getCategory()));
-        }
-        
-        return response;
     }
     
     public void updateEntityFromRequest(Product product, UpdateProductRequest request) {
@@ -0,0 +1,221 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.search;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre nombre, descripción y categoría de los productos.
+ * Ranking BM25 con pesos por campo (el nombre pesa más que la categoría y esta más que la descripción)
+ * y coincidencia por prefijo, penalizada frente a la coincidencia exacta del término.
+ * Las lecturas comparten un read lock; las altas y modificaciones solo bloquean mientras se actualizan las posting lists.
+ */
+public class ProductSearchIndex {
+    
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int NAME_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final double PREFIX_MATCH_FACTOR = 0.5;
+    // Evita que un prefijo muy corto ("a") recorra todo el vocabulario
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    
+    private record IndexedProduct(ProductResponse product, Map<String, Integer> termFrequencies, int length) {}
+    
+    // término -> (producto -> frecuencia ponderada); ordenado para resolver prefijos con subMap
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, IndexedProduct> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    
+    public record SearchHit(ProductResponse product, double score) {}
+    
+    /**
+     * Reemplaza todo el contenido del índice.
+     */
+    public void rebuild(Collection<ProductResponse> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            for (ProductResponse product : products) {
+                addUnlocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Indexa un producto nuevo o reemplaza la versión anterior del mismo id.
+     */
+    public void upsert(ProductResponse product) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            addUnlocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(UUID productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Devuelve los productos que contienen todos los términos de la consulta (exactos o como prefijo),
+     * ordenados por puntuación BM25 descendente.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<UUID, Double> scores = null;
+            
+            for (String queryTerm : queryTerms) {
+                Map<UUID, Double> termScores = scoreTerm(queryTerm, averageLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Semántica AND: solo siguen los productos que coinciden con todos los términos
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new SearchHit(documents.get(id).product(), score)));
+            hits.sort((a, b) -> {
+                int byScore = Double.compare(b.score(), a.score());
+                return byScore != 0 ? byScore : a.product().getName().compareToIgnoreCase(b.product().getName());
+            });
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Minúsculas, sin tildes y partido en secuencias de letras/dígitos ("Café-Molido" -> [cafe, molido]).
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private Map<UUID, Double> scoreTerm(String queryTerm, double averageLength) {
+        Map<UUID, Double> termScores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<UUID, Integer>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            double factor = term.equals(queryTerm) ? 1.0 : PREFIX_MATCH_FACTOR;
+            double idf = idf(entry.getValue().size());
+            for (Map.Entry<UUID, Integer> posting : entry.getValue().entrySet()) {
+                IndexedProduct document = documents.get(posting.getKey());
+                double tf = posting.getValue();
+                double norm = K1 * (1 - B + B * document.length() / averageLength);
+                double score = factor * idf * (tf * (K1 + 1)) / (tf + norm);
+                // Si varios términos del vocabulario comparten el prefijo, cuenta el que mejor puntúa
+                termScores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return termScores;
+    }
+    
+    private double idf(int documentFrequency) {
+        int n = documents.size();
+        return Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+    
+    private void addUnlocked(ProductResponse product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, product.getName(), NAME_WEIGHT);
+        addField(frequencies, product.getCategory() != null ? product.getCategory().getName() : null, CATEGORY_WEIGHT);
+        addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        documents.put(product.getId(), new IndexedProduct(product, frequencies, length));
+        totalLength += length;
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), frequency));
+    }
+    
+    private void removeUnlocked(UUID productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        Set<String> terms = previous.termFrequencies().keySet();
+        for (String term : terms) {
+            Map<UUID, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    private static void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+}
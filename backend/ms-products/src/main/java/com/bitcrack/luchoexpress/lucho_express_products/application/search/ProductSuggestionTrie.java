@@ -0,0 +1,262 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Trie inmutable de nombres de producto para autocompletado. Cada nodo guarda precalculadas sus k mejores
+ * sugerencias, así que responder a un prefijo es recorrer sus caracteres y devolver una lista ya ordenada.
+ * Es un trie compacto (radix): las cadenas de nodos con un solo hijo se guardan como una arista con etiqueta,
+ * y los hijos de cada nodo van en arrays ordenados por primer carácter (búsqueda binaria, sin un mapa por nodo).
+ * Cada nombre se indexa desde el inicio de cada palabra ("Wireless Headphones" responde a "wir" y a "head").
+ * Las modificaciones copian solo los nodos del camino afectado (path copying) y devuelven un trie nuevo:
+ * quien ya tiene una referencia al anterior sigue leyéndolo sin bloqueos.
+ */
+public final class ProductSuggestionTrie {
+    
+    /**
+     * @param popularity mayor = más arriba en las sugerencias
+     */
+    public record Suggestion(UUID productId, String name, long popularity) {}
+    
+    // Más popular primero; a igual popularidad, nombres más cortos (más probables de ser lo que se está escribiendo)
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::popularity).reversed()
+            .thenComparingInt(s -> s.name().length())
+            .thenComparing(Suggestion::name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Suggestion::productId);
+    
+    private final Node root;
+    private final int topK;
+    
+    private ProductSuggestionTrie(Node root, int topK) {
+        this.root = root;
+        this.topK = topK;
+    }
+    
+    public static ProductSuggestionTrie empty(int topK) {
+        return new ProductSuggestionTrie(Node.EMPTY, topK);
+    }
+    
+    /**
+     * @return hasta k sugerencias para el prefijo, ya ordenadas
+     */
+    public List<Suggestion> suggest(String prefix) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = node.indexOf(key.charAt(depth));
+            if (index < 0) {
+                return List.of();
+            }
+            String label = node.labels[index];
+            int matched = commonPrefixLength(label, key, depth);
+            if (depth + matched == key.length()) {
+                // El prefijo termina dentro (o al final) de la arista: todo el subárbol del hijo lo contiene
+                return node.children[index].top;
+            }
+            if (matched < label.length()) {
+                return List.of();
+            }
+            node = node.children[index];
+            depth += matched;
+        }
+        return node.top;
+    }
+    
+    public ProductSuggestionTrie with(Suggestion suggestion) {
+        Node updated = root;
+        for (String key : keys(suggestion.name())) {
+            updated = put(updated, key, 0, suggestion);
+        }
+        return new ProductSuggestionTrie(updated, topK);
+    }
+    
+    public ProductSuggestionTrie without(Suggestion suggestion) {
+        Node updated = root;
+        for (String key : keys(suggestion.name())) {
+            updated = remove(updated, key, 0, suggestion.productId());
+        }
+        return new ProductSuggestionTrie(updated == null ? Node.EMPTY : updated, topK);
+    }
+    
+    /**
+     * Misma normalización que el índice de búsqueda: minúsculas, sin tildes, palabras separadas por un espacio.
+     */
+    static String normalize(String text) {
+        return String.join(" ", ProductSearchIndex.tokenize(text));
+    }
+    
+    static List<String> keys(String name) {
+        List<String> tokens = ProductSearchIndex.tokenize(name);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return List.copyOf(keys);
+    }
+    
+    private Node put(Node node, String key, int depth, Suggestion suggestion) {
+        if (depth == key.length()) {
+            List<Suggestion> terminals = new ArrayList<>(node.terminals.size() + 1);
+            for (Suggestion existing : node.terminals) {
+                if (!existing.productId().equals(suggestion.productId())) {
+                    terminals.add(existing);
+                }
+            }
+            terminals.add(suggestion);
+            return node.withTerminals(terminals, topK);
+        }
+        int index = node.indexOf(key.charAt(depth));
+        if (index < 0) {
+            Node leaf = new Node(new String[0], new Node[0], List.of(suggestion), topK);
+            return node.withChild(key.substring(depth), leaf, topK);
+        }
+        String label = node.labels[index];
+        Node child = node.children[index];
+        int matched = commonPrefixLength(label, key, depth);
+        if (matched < label.length()) {
+            // La clave se separa a mitad de la arista: un nodo intermedio con el tramo común y el hijo anterior debajo
+            String rest = label.substring(matched);
+            child = new Node(new String[] {rest}, new Node[] {child}, List.of(), topK);
+            label = label.substring(0, matched);
+        }
+        return node.replaceChild(index, label, put(child, key, depth + matched, suggestion), topK);
+    }
+    
+    /**
+     * @return el nodo actualizado, o null si queda vacío y debe podarse
+     */
+    private Node remove(Node node, String key, int depth, UUID productId) {
+        Node updated;
+        if (depth == key.length()) {
+            updated = node.withTerminals(node.terminals.stream().filter(s -> !s.productId().equals(productId)).toList(), topK);
+        } else {
+            int index = node.indexOf(key.charAt(depth));
+            if (index < 0 || !key.startsWith(node.labels[index], depth)) {
+                return node;
+            }
+            String label = node.labels[index];
+            Node child = remove(node.children[index], key, depth + label.length(), productId);
+            if (child == null) {
+                updated = node.withoutChild(index, topK);
+            } else if (child.terminals.isEmpty() && child.children.length == 1) {
+                // El hijo quedó como un simple paso intermedio: se funde con su único hijo en una sola arista
+                updated = node.replaceChild(index, label + child.labels[0], child.children[0], topK);
+            } else {
+                updated = node.replaceChild(index, label, child, topK);
+            }
+        }
+        if (updated.children.length == 0 && updated.terminals.isEmpty()) {
+            return null;
+        }
+        return updated;
+    }
+    
+    /**
+     * Longitud del tramo común entre la etiqueta y key a partir de from.
+     */
+    private static int commonPrefixLength(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static final class Node {
+        
+        static final Node EMPTY = new Node(new String[0], new Node[0], List.of(), 0);
+        
+        // Aristas ordenadas por su primer carácter (firsts[i] == labels[i].charAt(0)); nunca se modifican
+        final char[] firsts;
+        final String[] labels;
+        final Node[] children;
+        // Productos cuya clave termina exactamente en este nodo
+        final List<Suggestion> terminals;
+        // Top-k del subárbol, calculado a partir del top-k de los hijos (nunca recorre el subárbol entero)
+        final List<Suggestion> top;
+        
+        Node(String[] labels, Node[] children, List<Suggestion> terminals, int topK) {
+            this.labels = labels;
+            this.children = children;
+            this.firsts = new char[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                firsts[i] = labels[i].charAt(0);
+            }
+            this.terminals = List.copyOf(terminals);
+            this.top = computeTop(children, this.terminals, topK);
+        }
+        
+        int indexOf(char first) {
+            int index = Arrays.binarySearch(firsts, first);
+            return index >= 0 ? index : -1;
+        }
+        
+        Node withTerminals(List<Suggestion> terminals, int topK) {
+            return new Node(labels, children, terminals, topK);
+        }
+        
+        Node replaceChild(int index, String label, Node child, int topK) {
+            String[] newLabels = labels.clone();
+            Node[] newChildren = children.clone();
+            newLabels[index] = label;
+            newChildren[index] = child;
+            return new Node(newLabels, newChildren, terminals, topK);
+        }
+        
+        Node withChild(String label, Node child, int topK) {
+            int insertAt = -Arrays.binarySearch(firsts, label.charAt(0)) - 1;
+            String[] newLabels = new String[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            return new Node(newLabels, newChildren, terminals, topK);
+        }
+        
+        Node withoutChild(int index, int topK) {
+            String[] newLabels = new String[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return new Node(newLabels, newChildren, terminals, topK);
+        }
+        
+        private static List<Suggestion> computeTop(Node[] children, List<Suggestion> terminals, int topK) {
+            List<Suggestion> candidates = new ArrayList<>(terminals);
+            for (Node child : children) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(RANKING);
+            
+            // Un producto puede llegar por varias claves (una por palabra): se queda solo la primera aparición
+            List<Suggestion> top = new ArrayList<>(Math.min(topK, candidates.size()));
+            Set<UUID> seen = new HashSet<>();
+            for (Suggestion candidate : candidates) {
+                if (top.size() == topK) {
+                    break;
+                }
+                if (seen.add(candidate.productId())) {
+                    top.add(candidate);
+                }
+            }
+            return List.copyOf(top);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Snapshot inmutable y ya serializado del catálogo público (GET /api/products y GET /api/categories-with-products).
+ * Se reconstruye completo tras los commits que modifican productos o categorías y se publica con un swap atómico,
+ * de modo que las lecturas solo copian bytes de memoria y nunca ven un catálogo a medio construir.
+ * <p>
+ * La reconstrucción corre en un único hilo propio, no en el de la petición que hizo el cambio: una ráfaga de cambios
+ * se agrupa en una sola reconstrucción, y hasta que termina las lecturas siguen recibiendo el snapshot anterior.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService implements DisposableBean {
+    
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("catalog-snapshot-"));
+    // true mientras hay una reconstrucción encolada que aún no ha empezado: los cambios que llegan entonces ya entran en ella
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    // ReentrantLock y no synchronized: rebuild() espera a MySQL con el lock tomado (también desde una lectura,
+    // si aún no hay snapshot) y con hilos virtuales un synchronized fijaría el hilo portador
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    public CatalogSnapshotService(ProductService productService, CategoryService categoryService, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.productService = productService;
+        this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Respuesta serializada junto con su ETag fuerte (hash del contenido).
+     */
+    public record SerializedView(byte[] body, String etag) {}
+    
+    public record CatalogSnapshot(SerializedView products, SerializedView categoriesWithProducts) {}
+    
+    public SerializedView getProducts() {
+        return current().products();
+    }
+    
+    public SerializedView getCategoriesWithProducts() {
+        return current().categoriesWithProducts();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+    
+    /**
+     * Encola la reconstrucción y vuelve enseguida. La tarea baja rebuildQueued antes de leer, así que un commit
+     * que llega durante una reconstrucción encola la siguiente y ningún cambio queda fuera del snapshot.
+     */
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            log.debug("Catalog changed ({} {}), rebuild already queued", event.entityType(), event.entityId());
+            return;
+        }
+        log.debug("Catalog changed ({} {}), queueing snapshot rebuild", event.entityType(), event.entityId());
+        try {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+            log.warn("Catalog snapshot rebuild rejected, service is shutting down");
+        }
+    }
+    
+    /**
+     * Reconstruye el snapshot en una sola transacción de lectura. Serializado para no publicar fuera de orden.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            CatalogSnapshot rebuilt = readOnlyTransaction.execute(status -> new CatalogSnapshot(
+                serialize(productService.getAllProducts()),
+                serialize(categoryService.getCategoriesWithProducts())
+            ));
+            snapshot.set(rebuilt);
+            log.info("Catalog snapshot rebuilt: products {} bytes, categories-with-products {} bytes",
+                    rebuilt.products().body().length, rebuilt.categoriesWithProducts().body().length);
+        } catch (Exception e) {
+            // Se conserva el snapshot anterior; el siguiente cambio (o la siguiente lectura, si no hay ninguno) lo reintenta
+            log.error("Failed to rebuild catalog snapshot", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    private CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            rebuild();
+            current = snapshot.get();
+            if (current == null) {
+                throw new IllegalStateException("Catalog snapshot is not available");
+            }
+        }
+        return current;
+    }
+    
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    private SerializedView serialize(Object view) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", e);
+        }
+        return new SerializedView(body, etagOf(body));
+    }
+    
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -4,15 +4,20 @@ import com.bitcrack.luchoexpress.lucho_express_products.application.dto.*;
 import com.bitcrack.luchoexpress.lucho_express_products.application.mapper.CategoryMapper;
 import com.bitcrack.luchoexpress.lucho_express_products.application.mapper.ProductMapper;
 import com.bitcrack.luchoexpress.lucho_express_products.domain.Category;
+import com.bitcrack.luchoexpress.lucho_express_products.domain.Product;
 import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.CategoryAlreadyExistsException;
 import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.CategoryNotFoundException;
 import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.CategoryRepository;
 import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.ProductRepository;
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,6 +30,7 @@ public class CategoryService {
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CategoryResponse createCategory(CreateCategoryRequest request) {
         // Check if category with same name already exists
@@ -34,6 +40,7 @@ public class CategoryService {
         
         Category category = categoryMapper.toEntity(request);
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.EntityType.CATEGORY, savedCategory.getId()));
         return categoryMapper.toResponse(savedCategory);
     }
     
@@ -50,6 +57,7 @@ public class CategoryService {
         
         categoryMapper.updateEntityFromRequest(category, request);
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.EntityType.CATEGORY, updatedCategory.getId()));
         return categoryMapper.toResponse(updatedCategory);
     }
     
@@ -63,14 +71,20 @@ public class CategoryService {
     
     @Transactional(readOnly = true)
     public List<CategoryWithProductsResponse> getCategoriesWithProducts() {
+        // Dos consultas en total, sin importar cuántas categorías haya:
+        // las categorías quedan en el contexto de persistencia, así que la relación EAGER Product.category
+        // se resuelve desde ahí al cargar los productos, sin un SELECT extra por categoría.
         List<Category> categories = categoryRepository.findAll();
+        Map<UUID, List<Product>> productsByCategory = productRepository.findAll()
+                .stream()
+                .collect(Collectors.groupingBy(Product::getCategoryId, LinkedHashMap::new, Collectors.toList()));
         
         return categories.stream()
                 .map(category -> {
                     CategoryResponse categoryResponse = categoryMapper.toResponse(category);
-                    List<ProductResponse> products = productRepository.findByCategoryId(category.getId())
+                    List<ProductResponse> products = productsByCategory.getOrDefault(category.getId(), List.of())
                             .stream()
-                            .map(productMapper::toResponse)
+                            .map(product -> productMapper.toResponse(product, categoryResponse))
                             .collect(Collectors.toList());
                     
                     return new CategoryWithProductsResponse(categoryResponse, products);
@@ -0,0 +1,95 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
+import com.bitcrack.luchoexpress.lucho_express_products.application.search.ProductSearchIndex;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.ProductNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Búsqueda de texto sobre el catálogo (GET /api/products/search) servida desde un índice en memoria,
+ * sin consultar MySQL. El índice se construye al arrancar y se actualiza producto a producto tras cada commit;
+ * los cambios de categoría (poco frecuentes, afectan a todos sus productos) lo reconstruyen completo.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+    
+    private final ProductService productService;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final int defaultLimit;
+    private final int maxLimit;
+    
+    public ProductSearchService(
+            ProductService productService,
+            @Value("${products.search.default-limit:20}") int defaultLimit,
+            @Value("${products.search.max-limit:100}") int maxLimit) {
+        this.productService = productService;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+    
+    public List<ProductResponse> search(String query, Integer limit) {
+        int effectiveLimit = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return index.search(query, effectiveLimit).stream()
+                .map(ProductSearchIndex.SearchHit::product)
+                .toList();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+    
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entityType() == CatalogChangedEvent.EntityType.PRODUCT && event.entityId() != null) {
+            reindexProduct(event);
+        } else {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Serializado con rebuild() para que una versión leída antes no pise a otra más reciente.
+     * Los lectores no se bloquean durante la consulta a la base de datos, solo durante el upsert en memoria.
+     */
+    private void reindexProduct(CatalogChangedEvent event) {
+        updateLock.lock();
+        try {
+            index.upsert(productService.getProductById(event.entityId()));
+        } catch (ProductNotFoundException e) {
+            index.remove(event.entityId());
+        } catch (Exception e) {
+            log.error("Failed to reindex product {}, rebuilding search index", event.entityId(), e);
+            rebuild();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            index.rebuild(productService.getAllProducts());
+            log.info("Product search index rebuilt with {} products", index.size());
+        } catch (Exception e) {
+            // Se conserva el índice anterior; el siguiente cambio de catálogo lo reintenta
+            log.error("Failed to rebuild product search index", e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.bitcrack.luchoexpress.lucho_express_products.application.service;
 
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.CreateProductRequest;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductPageResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.UpdateProductRequest;
 import com.bitcrack.luchoexpress.lucho_express_products.application.mapper.ProductMapper;
 import com.bitcrack.luchoexpress.lucho_express_products.domain.Product;
 import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.CategoryNotFoundException;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.InvalidProductQueryException;
 import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.ProductNotFoundException;
 import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.CategoryRepository;
 import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.ProductRepository;
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
+import com.bitcrack.luchoexpress.lucho_express_products.persistance.specifications.ProductSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,6 +37,23 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Campos por los que se permite ordenar el listado (parámetro sort=campo,asc|desc)
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "name", "name",
+            "price", "price",
+            "createdAt", "createdAt"
+    );
+    
+    @Value("${products.page.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${products.page.max-size:100}")
+    private int maxPageSize;
+    
+    @Value("${products.batch.max-ids:100}")
+    private int maxBatchIds;
     
     public ProductResponse createProduct(CreateProductRequest request) {
         // Validate that category exists
@@ -34,6 +63,7 @@ public class ProductService {
         
         Product product = productMapper.toEntity(request);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.EntityType.PRODUCT, savedProduct.getId()));
         
         // Reload the product to ensure the category relationship is fully loaded
         Product reloadedProduct = productRepository.findById(savedProduct.getId())
@@ -53,6 +83,7 @@ public class ProductService {
         
         productMapper.updateEntityFromRequest(product, request);
         Product updatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.EntityType.PRODUCT, updatedProduct.getId()));
         
         // Reload the product to ensure the category relationship is fully loaded
         Product reloadedProduct = productRepository.findById(updatedProduct.getId())
@@ -68,6 +99,23 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
     
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        // Acota el IN (...) y la respuesta; los clientes con más IDs deben partir la lista (ms-order lo hace)
+        if (ids.size() > maxBatchIds) {
+            throw new InvalidProductQueryException("At most " + maxBatchIds + " product ids can be requested per batch, got " + ids.size());
+        }
+        
+        // Una sola consulta para todo el lote; los IDs inexistentes simplemente no aparecen en la respuesta
+        return productRepository.findAllById(ids.stream().distinct().toList())
+                .stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+    
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
         List<Product> products = productRepository.findAll();
@@ -75,4 +123,52 @@ public class ProductService {
                 .map(productMapper::toResponse)
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * Listado paginado con filtros opcionales por categoría y rango de precio.
+     * El id se añade siempre como último criterio de orden para que la paginación sea estable entre páginas.
+     */
+    @Transactional(readOnly = true)
+    public ProductPageResponse getProducts(UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                                           Integer page, Integer size, String sort) {
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageNumber < 0) {
+            throw new InvalidProductQueryException("page must be greater than or equal to 0");
+        }
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new InvalidProductQueryException("size must be between 1 and " + maxPageSize);
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidProductQueryException("minPrice must be less than or equal to maxPrice");
+        }
+        
+        Page<Product> products = productRepository.findAll(
+                ProductSpecifications.withFilters(categoryId, minPrice, maxPrice),
+                PageRequest.of(pageNumber, pageSize, parseSort(sort)));
+        
+        List<ProductResponse> items = products.getContent().stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+        return new ProductPageResponse(items, products.getNumber(), products.getSize(),
+                products.getTotalElements(), products.getTotalPages());
+    }
+    
+    private Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        
+        String[] parts = sort.split(",");
+        String property = SORTABLE_FIELDS.get(parts[0].trim());
+        if (property == null || parts.length > 2) {
+            throw new InvalidProductQueryException("sort must be one of " + SORTABLE_FIELDS.keySet() + " optionally followed by ,asc or ,desc");
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new InvalidProductQueryException("sort direction must be asc or desc"));
+        }
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
 }
@@ -0,0 +1,182 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductSuggestionResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
+import com.bitcrack.luchoexpress.lucho_express_products.application.search.ProductSuggestionTrie;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.clients.OrderPopularityClient;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.ProductNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Autocompletado de nombres de producto (GET /api/products/suggest) sobre un trie inmutable.
+ * Los lectores solo leen la referencia volátil al trie actual; cada alta o cambio de nombre publica
+ * un trie nuevo que comparte todos los nodos no afectados con el anterior.
+ * El orden de las sugerencias usa como popularidad el número de órdenes de cada producto, que se pide
+ * periódicamente a ms-order; solo se reindexan los productos cuyo conteo cambió.
+ */
+@Service
+@Slf4j
+public class ProductSuggestionService {
+    
+    private final ProductService productService;
+    private final OrderPopularityClient orderPopularityClient;
+    private final int topK;
+    private final boolean popularityEnabled;
+    // Última sugerencia indexada por producto, para retirar el nombre anterior cuando cambia (solo bajo el lock)
+    private final Map<UUID, ProductSuggestionTrie.Suggestion> indexed = new HashMap<>();
+    // Último conteo de órdenes por producto recibido de ms-order (solo bajo el lock)
+    private Map<UUID, Long> popularity = Map.of();
+    private volatile ProductSuggestionTrie trie;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    
+    public ProductSuggestionService(
+            ProductService productService,
+            OrderPopularityClient orderPopularityClient,
+            @Value("${products.suggest.top-k:10}") int topK,
+            @Value("${products.suggest.popularity.enabled:true}") boolean popularityEnabled) {
+        this.productService = productService;
+        this.orderPopularityClient = orderPopularityClient;
+        this.topK = topK;
+        this.popularityEnabled = popularityEnabled;
+        this.trie = ProductSuggestionTrie.empty(topK);
+    }
+    
+    public List<ProductSuggestionResponse> suggest(String prefix) {
+        return trie.suggest(prefix).stream()
+                .map(s -> new ProductSuggestionResponse(s.productId(), s.name()))
+                .toList();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+    
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Los cambios de categoría no afectan a los nombres de producto; el seeding inicial llega con id null
+        if (event.entityType() == CatalogChangedEvent.EntityType.PRODUCT && event.entityId() != null) {
+            reindexProduct(event.entityId());
+        } else if (event.entityId() == null) {
+            rebuild();
+        }
+    }
+    
+    private void reindexProduct(UUID productId) {
+        updateLock.lock();
+        try {
+            ProductSuggestionTrie.Suggestion previous = indexed.get(productId);
+            try {
+                ProductSuggestionTrie.Suggestion current = toSuggestion(productService.getProductById(productId));
+                apply(previous, current);
+            } catch (ProductNotFoundException e) {
+                if (previous != null) {
+                    trie = trie.without(previous);
+                    indexed.remove(productId);
+                }
+            } catch (Exception e) {
+                log.error("Failed to update suggestions for product {}, rebuilding", productId, e);
+                rebuild();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    /**
+     * Sustituye la sugerencia indexada de un producto, si ha cambiado (nombre o popularidad). Solo bajo el lock.
+     */
+    private void apply(ProductSuggestionTrie.Suggestion previous, ProductSuggestionTrie.Suggestion current) {
+        if (current.equals(previous)) {
+            return;
+        }
+        ProductSuggestionTrie updated = previous != null ? trie.without(previous) : trie;
+        trie = updated.with(current);
+        indexed.put(current.productId(), current);
+    }
+    
+    /**
+     * Actualiza la popularidad con los conteos de ms-order. Si ms-order no responde se mantiene el orden actual.
+     */
+    @Scheduled(fixedDelayString = "${products.suggest.popularity.refresh-interval-ms:600000}",
+               initialDelayString = "${products.suggest.popularity.initial-delay-ms:30000}")
+    public void refreshPopularity() {
+        if (!popularityEnabled) {
+            return;
+        }
+        
+        Map<UUID, Long> counts;
+        try {
+            counts = orderPopularityClient.getOrderCountsByProduct();
+        } catch (Exception e) {
+            log.warn("Could not refresh product popularity from order service: {}", e.getMessage());
+            return;
+        }
+        
+        updateLock.lock();
+        try {
+            popularity = Map.copyOf(counts);
+            int changed = 0;
+            for (ProductSuggestionTrie.Suggestion previous : List.copyOf(indexed.values())) {
+                ProductSuggestionTrie.Suggestion current = new ProductSuggestionTrie.Suggestion(
+                        previous.productId(), previous.name(), popularityOf(previous.productId()));
+                if (!current.equals(previous)) {
+                    apply(previous, current);
+                    changed++;
+                }
+            }
+            log.info("Product popularity refreshed: {} products with orders, {} suggestions reindexed", counts.size(), changed);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            Map<UUID, ProductSuggestionTrie.Suggestion> suggestions = new HashMap<>();
+            ProductSuggestionTrie rebuilt = ProductSuggestionTrie.empty(topK);
+            for (ProductResponse product : productService.getAllProducts()) {
+                ProductSuggestionTrie.Suggestion suggestion = toSuggestion(product);
+                suggestions.put(product.getId(), suggestion);
+                rebuilt = rebuilt.with(suggestion);
+            }
+            // Los lectores siguen con el trie anterior hasta este punto
+            trie = rebuilt;
+            indexed.clear();
+            indexed.putAll(suggestions);
+            log.info("Product suggestion trie rebuilt with {} products", suggestions.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild product suggestion trie", e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    /**
+     * Hasta el primer refresco (o sin ms-order) la popularidad es 0 y el trie desempata por longitud y orden alfabético.
+     */
+    private ProductSuggestionTrie.Suggestion toSuggestion(ProductResponse product) {
+        return new ProductSuggestionTrie.Suggestion(product.getId(), product.getName(), popularityOf(product.getId()));
+    }
+    
+    private long popularityOf(UUID productId) {
+        return popularity.getOrDefault(productId, 0L);
+    }
+}
@@ -0,0 +1,52 @@
+package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.clients;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lee de ms-order el número de órdenes por producto (GET /api/orders/internal/product-popularity).
+ */
+@Component
+public class OrderPopularityClient {
+    
+    private static final ParameterizedTypeReference<Map<UUID, Long>> COUNTS = new ParameterizedTypeReference<>() {};
+    
+    private final RestClient restClient;
+    private final String apiKey;
+    
+    public OrderPopularityClient(
+            @Value("${order.service.url:http://localhost:8084}") String orderServiceUrl,
+            @Value("${microservices.api-key:lucho-express-secret-key-2025}") String apiKey,
+            @Value("${products.suggest.popularity.timeout:5s}") Duration timeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        
+        this.restClient = RestClient.builder()
+                .baseUrl(orderServiceUrl)
+                .requestFactory(requestFactory)
+                .build();
+        this.apiKey = apiKey;
+    }
+    
+    /**
+     * @return productId -> número de órdenes; los productos sin órdenes no aparecen
+     * @throws org.springframework.web.client.RestClientException si ms-order no responde
+     */
+    public Map<UUID, Long> getOrderCountsByProduct() {
+        Map<UUID, Long> counts = restClient.get()
+                .uri("/api/orders/internal/product-popularity")
+                .header("X-API-Key", apiKey)
+                .retrieve()
+                .body(COUNTS);
+        return counts != null ? counts : Map.of();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control de los GET públicos del catálogo: el navegador revalida siempre (max-age=0, con ETag cuando lo hay)
+ * y las caches compartidas, como la del api-gateway, pueden servir la respuesta durante s-maxage.
+ * Sin esta cabecera Spring Security añade no-store y el gateway no cachearía nada.
+ */
+@Component
+public class CatalogCachePolicy {
+    
+    private final CacheControl publicCatalog;
+    
+    public CatalogCachePolicy(@Value("${catalog.cache.shared-max-age:30s}") Duration sharedMaxAge) {
+        this.publicCatalog = CacheControl.maxAge(Duration.ZERO)
+                .sMaxAge(sharedMaxAge)
+                .cachePublic();
+    }
+    
+    public CacheControl publicCatalog() {
+        return publicCatalog;
+    }
+}
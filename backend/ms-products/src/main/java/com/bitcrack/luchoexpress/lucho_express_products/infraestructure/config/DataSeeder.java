@@ -1,5 +1,6 @@
 package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config;
 
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
 import com.bitcrack.luchoexpress.lucho_express_products.domain.Category;
 import com.bitcrack.luchoexpress.lucho_express_products.domain.Product;
 import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.CategoryRepository;
@@ -7,6 +8,7 @@ import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +23,7 @@ public class DataSeeder {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @EventListener(ApplicationReadyEvent.class)
     @Transactional
@@ -28,6 +31,8 @@ public class DataSeeder {
         if (categoryRepository.count() == 0) {
             log.info("Seeding categories and products data...");
             seedCategories();
+            // El snapshot del catálogo puede haberse construido antes de sembrar: se recalcula al confirmar
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.EntityType.CATEGORY, null));
             log.info("Data seeding completed successfully!");
         } else {
             log.info("Data already exists, skipping seeding.");
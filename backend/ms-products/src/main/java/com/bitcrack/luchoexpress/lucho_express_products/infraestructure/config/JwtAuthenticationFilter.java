@@ -1,6 +1,7 @@
 package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config;
 
 import com.bitcrack.luchoexpress.lucho_express_products.application.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +23,7 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
+    private final InternalIdentityVerifier internalIdentityVerifier;
     
     @Override
     protected void doFilterInternal(
@@ -30,8 +32,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         
+        // Identidad ya verificada y firmada por el api-gateway (solo en modo internal-auth.trust-gateway-headers)
+        var gatewayIdentity = internalIdentityVerifier.verify(request);
+        if (gatewayIdentity.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            var authorities = gatewayIdentity.get().roles().stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                    .toList();
+            var authToken = new UsernamePasswordAuthenticationToken(gatewayIdentity.get().username(), null, authorities);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -40,12 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Parse and verify the token once; subsequent requests with the same token hit the cache
+        claims = jwtService.parseClaims(jwt);
+        username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (!jwtService.isTokenExpired(jwt)) {
+            if (!jwtService.isTokenExpired(claims)) {
                 // Extract role from token
-                String role = jwtService.extractClaim(jwt, claims -> claims.get("role", String.class));
+                String role = claims.get("role", String.class);
                 
                 var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
                 var authToken = new UsernamePasswordAuthenticationToken(
@@ -43,6 +43,7 @@ public class SecurityConfig {
                 // Public endpoints - Products (para que Order Service pueda acceder)
                 .requestMatchers(HttpMethod.GET, "/api/products").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/products/batch").permitAll()
                 
                 // Protected endpoints - Categories
                 .requestMatchers(HttpMethod.POST, "/api/categories").hasAnyRole("ADMIN", "ROOT")
@@ -0,0 +1,7 @@
+package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions;
+
+public class InvalidProductQueryException extends RuntimeException {
+    public InvalidProductQueryException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,29 @@
 package com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories;
 
 import com.bitcrack.luchoexpress.lucho_express_products.domain.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
     
     List<Product> findByCategoryId(UUID categoryId);
+    
+    // Carga los productos y sus categorías en una sola consulta (evita un SELECT por categoría)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllById(Iterable<UUID> ids);
+    
+    // Listado paginado: la categoría se trae en el mismo SELECT (relación to-one, compatible con LIMIT)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.bitcrack.luchoexpress.lucho_express_products.persistance.specifications;
+
+import com.bitcrack.luchoexpress.lucho_express_products.domain.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Filtros del listado de productos. Solo se añaden los predicados presentes, para que MySQL
+ * pueda usar idx_products_category_price_created en lugar de evaluar condiciones "param IS NULL OR ...".
+ */
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {
+    }
+    
+    public static Specification<Product> withFilters(UUID categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        Specification<Product> spec = Specification.where(null);
+        if (categoryId != null) {
+            spec = spec.and(inCategory(categoryId));
+        }
+        if (minPrice != null) {
+            spec = spec.and(priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            spec = spec.and(priceAtMost(maxPrice));
+        }
+        return spec;
+    }
+    
+    public static Specification<Product> inCategory(UUID categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+    
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+    
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+}
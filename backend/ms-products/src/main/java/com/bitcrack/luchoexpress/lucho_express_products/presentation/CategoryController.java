@@ -1,13 +1,17 @@
 package com.bitcrack.luchoexpress.lucho_express_products.presentation;
 
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.*;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.CatalogSnapshotService;
 import com.bitcrack.luchoexpress.lucho_express_products.application.service.CategoryService;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config.CatalogCachePolicy;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,6 +24,8 @@ import java.util.UUID;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CatalogCachePolicy catalogCachePolicy;
     
     @PostMapping("/categories")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ROOT')")
@@ -40,13 +46,21 @@ public class CategoryController {
     @GetMapping("/categories")
     public ResponseEntity<List<CategoryResponse>> getAllCategories() {
         List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(catalogCachePolicy.publicCatalog()).body(categories);
     }
     
     @GetMapping("/categories-with-products")
-    public ResponseEntity<List<CategoryWithProductsResponse>> getCategoriesWithProducts() {
-        List<CategoryWithProductsResponse> response = categoryService.getCategoriesWithProducts();
-        return ResponseEntity.ok(response);
+    // Servido desde el snapshot pre-serializado del catálogo, con ETag para responder 304
+    public ResponseEntity<byte[]> getCategoriesWithProducts(WebRequest webRequest) {
+        CatalogSnapshotService.SerializedView response = catalogSnapshotService.getCategoriesWithProducts();
+        if (webRequest.checkNotModified(response.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .cacheControl(catalogCachePolicy.publicCatalog())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
     }
     
     @GetMapping("/categories/{id}/products")
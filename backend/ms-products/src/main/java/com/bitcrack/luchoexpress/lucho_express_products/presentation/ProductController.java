@@ -1,16 +1,26 @@
 package com.bitcrack.luchoexpress.lucho_express_products.presentation;
 
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.CreateProductRequest;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductPageResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductSuggestionResponse;
 import com.bitcrack.luchoexpress.lucho_express_products.application.dto.UpdateProductRequest;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.CatalogSnapshotService;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductSearchService;
 import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductService;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductSuggestionService;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config.CatalogCachePolicy;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +32,10 @@ import java.util.UUID;
 public class ProductController {
     
     private final ProductService productService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestionService productSuggestionService;
+    private final CatalogCachePolicy catalogCachePolicy;
     
     @PostMapping("/products")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ROOT')")
@@ -30,18 +44,71 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @GetMapping("/products/batch")
+    // No @PreAuthorize - consulta en lote usada por Order Service (?ids=a,b,c)
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam("ids") Collection<UUID> ids) {
+        List<ProductResponse> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok().cacheControl(catalogCachePolicy.publicCatalog()).body(products);
+    }
+    
+    @PostMapping("/products/batch")
+    // No @PreAuthorize - variante POST para listas de IDs que no caben en la URL
+    public ResponseEntity<List<ProductResponse>> getProductsByIdsPost(@RequestBody Collection<UUID> ids) {
+        List<ProductResponse> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+    
+    @GetMapping("/products/search")
+    // No @PreAuthorize - búsqueda pública servida desde el índice en memoria, sin consultar la base de datos
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok()
+                .cacheControl(catalogCachePolicy.publicCatalog())
+                .body(productSearchService.search(query, limit));
+    }
+    
+    @GetMapping("/products/suggest")
+    // No @PreAuthorize - autocompletado público para el buscador
+    public ResponseEntity<List<ProductSuggestionResponse>> suggestProducts(@RequestParam("prefix") String prefix) {
+        return ResponseEntity.ok()
+                .cacheControl(catalogCachePolicy.publicCatalog())
+                .body(productSuggestionService.suggest(prefix));
+    }
+    
     @GetMapping("/products/{id}")
     // No @PreAuthorize - endpoint público para que Order Service pueda acceder
     public ResponseEntity<ProductResponse> getProductById(@PathVariable UUID id) {
         ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(catalogCachePolicy.publicCatalog()).body(response);
+    }
+    
+    @GetMapping("/products/page")
+    // No @PreAuthorize - listado público paginado; siempre responde ProductPageResponse (filtros y orden opcionales)
+    public ResponseEntity<ProductPageResponse> getProductPage(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        ProductPageResponse response = productService.getProducts(categoryId, minPrice, maxPrice, page, size, sort);
+        return ResponseEntity.ok().cacheControl(catalogCachePolicy.publicCatalog()).body(response);
     }
     
     @GetMapping("/products")
-    // No @PreAuthorize - endpoint público para listar productos
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    // No @PreAuthorize - endpoint público para listar productos.
+    // Catálogo completo (array de ProductResponse) servido desde el snapshot pre-serializado; para páginas usar /products/page
+    public ResponseEntity<byte[]> getAllProducts(WebRequest webRequest) {
+        CatalogSnapshotService.SerializedView products = catalogSnapshotService.getProducts();
+        if (webRequest.checkNotModified(products.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(products.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(products.etag())
+                .cacheControl(catalogCachePolicy.publicCatalog())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(products.body());
     }
     
     @PatchMapping("/products/{id}")
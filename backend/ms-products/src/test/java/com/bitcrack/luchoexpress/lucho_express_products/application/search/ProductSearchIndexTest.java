@@ -0,0 +1,81 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.search;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.CategoryResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    
+    private final CategoryResponse electronics = category("Electronics");
+    private final CategoryResponse kitchen = category("Cocina");
+    
+    private ProductSearchIndex index;
+    private ProductResponse laptop;
+    private ProductResponse headphones;
+    private ProductResponse coffeeMaker;
+    
+    @BeforeEach
+    void setUp() {
+        laptop = product("Laptop Pro 15", "Powerful laptop for developers", electronics);
+        headphones = product("Wireless Headphones", "Noise cancelling headphones with laptop bag", electronics);
+        coffeeMaker = product("Cafetera Exprés", "Máquina de café para la cocina", kitchen);
+        
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(laptop, headphones, coffeeMaker));
+    }
+    
+    @Test
+    void search_RanksNameMatchesAboveDescriptionMatches() {
+        List<ProductSearchIndex.SearchHit> hits = index.search("laptop", 10);
+        
+        assertThat(hits).extracting(ProductSearchIndex.SearchHit::product).containsExactly(laptop, headphones);
+    }
+    
+    @Test
+    void search_MatchesPrefixesAndIgnoresAccentsAndCase() {
+        assertThat(index.search("CAFE", 10)).extracting(ProductSearchIndex.SearchHit::product).containsExactly(coffeeMaker);
+        assertThat(index.search("wirel", 10)).extracting(ProductSearchIndex.SearchHit::product).containsExactly(headphones);
+    }
+    
+    @Test
+    void search_RequiresAllTermsAndMatchesCategoryName() {
+        assertThat(index.search("electronics headphones", 10)).extracting(ProductSearchIndex.SearchHit::product).containsExactly(headphones);
+        assertThat(index.search("laptop cocina", 10)).isEmpty();
+    }
+    
+    @Test
+    void upsert_ReplacesPreviousTermsOfTheSameProduct() {
+        ProductResponse renamed = product("Ultrabook Air", "Thin and light", electronics);
+        renamed.setId(laptop.getId());
+        
+        index.upsert(renamed);
+        
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("pro", 10)).isEmpty();
+        assertThat(index.search("ultra", 10)).extracting(ProductSearchIndex.SearchHit::product).containsExactly(renamed);
+    }
+    
+    @Test
+    void remove_DropsProductFromResults() {
+        index.remove(headphones.getId());
+        
+        assertThat(index.search("headphones", 10)).isEmpty();
+        assertThat(index.search("laptop", 10)).extracting(ProductSearchIndex.SearchHit::product).containsExactly(laptop);
+    }
+    
+    private static CategoryResponse category(String name) {
+        return new CategoryResponse(UUID.randomUUID(), name, null, null, null);
+    }
+    
+    private static ProductResponse product(String name, String description, CategoryResponse category) {
+        return new ProductResponse(UUID.randomUUID(), category.getId(), name, null, description,
+                BigDecimal.TEN, null, null, category);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestionTrieTest {
+    
+    private final ProductSuggestionTrie.Suggestion laptop = suggestion("Laptop Pro 15", 5);
+    private final ProductSuggestionTrie.Suggestion lamp = suggestion("Lámpara de mesa", 20);
+    private final ProductSuggestionTrie.Suggestion headphones = suggestion("Wireless Headphones", 1);
+    
+    @Test
+    void suggest_RanksByPopularityAndMatchesAnyWordStart() {
+        ProductSuggestionTrie trie = ProductSuggestionTrie.empty(10).with(laptop).with(lamp).with(headphones);
+        
+        assertThat(trie.suggest("la")).containsExactly(lamp, laptop);
+        assertThat(trie.suggest("HEAD")).containsExactly(headphones);
+        assertThat(trie.suggest("lamp")).containsExactly(lamp);
+        assertThat(trie.suggest("x")).isEmpty();
+    }
+    
+    @Test
+    void suggest_ReturnsAtMostTopK() {
+        ProductSuggestionTrie trie = ProductSuggestionTrie.empty(1).with(laptop).with(lamp);
+        
+        assertThat(trie.suggest("l")).containsExactly(lamp);
+    }
+    
+    @Test
+    void without_LeavesPreviousVersionUntouched() {
+        ProductSuggestionTrie before = ProductSuggestionTrie.empty(10).with(laptop).with(lamp);
+        ProductSuggestionTrie renamed = before.without(laptop)
+                .with(new ProductSuggestionTrie.Suggestion(laptop.productId(), "Ultrabook", 5));
+        
+        assertThat(renamed.suggest("la")).containsExactly(lamp);
+        assertThat(renamed.suggest("ultra")).extracting(ProductSuggestionTrie.Suggestion::productId)
+                .containsExactly(laptop.productId());
+        assertThat(before.suggest("la")).containsExactly(lamp, laptop);
+    }
+    
+    @Test
+    void suggest_MatchesBruteForceAfterSplitsAndMerges() {
+        // Nombres con prefijos compartidos para forzar divisiones de aristas al insertar y fusiones al borrar
+        String[] words = {"lap", "laptop", "lapiz", "lampara", "lamp", "la", "mesa", "mesita", "mes", "monitor"};
+        Random random = new Random(42);
+        List<ProductSuggestionTrie.Suggestion> live = new ArrayList<>();
+        ProductSuggestionTrie trie = ProductSuggestionTrie.empty(3);
+        
+        for (int i = 0; i < 400; i++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                ProductSuggestionTrie.Suggestion removed = live.remove(random.nextInt(live.size()));
+                trie = trie.without(removed);
+            } else {
+                String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                ProductSuggestionTrie.Suggestion added = suggestion(name, random.nextInt(5));
+                live.add(added);
+                trie = trie.with(added);
+            }
+            
+            for (String prefix : List.of("l", "la", "lap", "lapt", "lam", "m", "mes", "mesi", "mo", "lapiz m", "x")) {
+                assertThat(trie.suggest(prefix)).as("prefix %s", prefix).isEqualTo(bruteForce(live, prefix, 3));
+            }
+        }
+    }
+    
+    private static List<ProductSuggestionTrie.Suggestion> bruteForce(List<ProductSuggestionTrie.Suggestion> live,
+                                                                    String prefix, int topK) {
+        String key = ProductSuggestionTrie.normalize(prefix);
+        Set<UUID> seen = new HashSet<>();
+        return live.stream()
+                .filter(s -> ProductSuggestionTrie.keys(s.name()).stream().anyMatch(k -> k.startsWith(key)))
+                .sorted(ProductSuggestionTrie.RANKING)
+                .filter(s -> seen.add(s.productId()))
+                .limit(topK)
+                .toList();
+    }
+    
+    private static ProductSuggestionTrie.Suggestion suggestion(String name, long popularity) {
+        return new ProductSuggestionTrie.Suggestion(UUID.randomUUID(), name, popularity);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.event.CatalogChangedEvent;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotServiceTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final CatalogSnapshotService snapshotService = new CatalogSnapshotService(productService,
+            mock(CategoryService.class), JsonMapper.builder().findAndAddModules().build(),
+            mock(PlatformTransactionManager.class));
+
+    @AfterEach
+    void tearDown() {
+        snapshotService.destroy();
+    }
+
+    @Test
+    void shouldCoalesceABurstOfChangesIntoOneBackgroundRebuild() throws InterruptedException {
+        // Given: la primera reconstrucción queda bloqueada mientras llega una ráfaga de cambios
+        CountDownLatch firstRebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRebuild = new CountDownLatch(1);
+        Queue<String> rebuildThreads = new ConcurrentLinkedQueue<>();
+        when(productService.getAllProducts()).thenAnswer(invocation -> {
+            rebuildThreads.add(Thread.currentThread().getName());
+            firstRebuildStarted.countDown();
+            assertTrue(releaseFirstRebuild.await(5, TimeUnit.SECONDS));
+            return List.of(product("Laptop Pro"));
+        }).thenReturn(List.of(product("Laptop Pro"), product("Monitor 27")));
+
+        // When
+        snapshotService.onCatalogChanged(changed());
+        assertTrue(firstRebuildStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            snapshotService.onCatalogChanged(changed());
+        }
+        releaseFirstRebuild.countDown();
+
+        // Then: los 50 cambios caben en una sola reconstrucción más, fuera del hilo que publicó el evento
+        verify(productService, timeout(5_000).times(2)).getAllProducts();
+        verify(productService, after(200).times(2)).getAllProducts();
+        assertTrue(rebuildThreads.stream().allMatch(name -> name.startsWith("catalog-snapshot-")), rebuildThreads.toString());
+        assertTrue(new String(snapshotService.getProducts().body(), StandardCharsets.UTF_8).contains("Monitor 27"));
+    }
+
+    private static CatalogChangedEvent changed() {
+        return new CatalogChangedEvent(CatalogChangedEvent.EntityType.PRODUCT, UUID.randomUUID());
+    }
+
+    private static ProductResponse product(String name) {
+        ProductResponse product = new ProductResponse();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,59 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.mapper.ProductMapper;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.InvalidProductQueryException;
+import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.CategoryRepository;
+import com.bitcrack.luchoexpress.lucho_express_products.persistance.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductServiceTest {
+
+    private static final int MAX_BATCH_IDS = 3;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductService productService = new ProductService(productRepository, mock(CategoryRepository.class),
+            mock(ProductMapper.class), mock(ApplicationEventPublisher.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productService, "maxBatchIds", MAX_BATCH_IDS);
+    }
+
+    @Test
+    void shouldRejectBatchAboveConfiguredMaximumWithoutQuerying() {
+        // Given
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(MAX_BATCH_IDS + 1).toList();
+
+        // When / Then
+        InvalidProductQueryException exception = assertThrows(InvalidProductQueryException.class,
+                () -> productService.getProductsByIds(ids));
+        assertEquals("At most 3 product ids can be requested per batch, got 4", exception.getMessage());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldQueryDistinctIdsOnceWhenBatchIsWithinMaximum() {
+        // Given
+        UUID repeated = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>(List.of(repeated, UUID.randomUUID(), repeated));
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        // When
+        productService.getProductsByIds(ids);
+
+        // Then
+        verify(productRepository).findAllById(List.of(ids.get(0), ids.get(1)));
+    }
+}
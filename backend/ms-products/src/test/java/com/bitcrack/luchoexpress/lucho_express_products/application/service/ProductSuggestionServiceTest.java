@@ -0,0 +1,73 @@
+package com.bitcrack.luchoexpress.lucho_express_products.application.service;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductSuggestionResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.clients.OrderPopularityClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSuggestionServiceTest {
+
+    private final ProductResponse laptop = product("Laptop Pro");
+    private final ProductResponse lamp = product("Lámpara de mesa");
+
+    private final ProductService productService = mock(ProductService.class);
+    private final OrderPopularityClient orderPopularityClient = mock(OrderPopularityClient.class);
+    private final ProductSuggestionService suggestionService =
+            new ProductSuggestionService(productService, orderPopularityClient, 10, true);
+
+    @BeforeEach
+    void setUp() {
+        when(productService.getAllProducts()).thenReturn(List.of(laptop, lamp));
+        suggestionService.rebuild();
+    }
+
+    @Test
+    void shouldRankByOrderCountsFromOrderService() {
+        // Given: sin conteos, el nombre más corto va primero
+        assertEquals(List.of(laptop.getId(), lamp.getId()), suggestedIds("la"));
+        when(orderPopularityClient.getOrderCountsByProduct()).thenReturn(Map.of(lamp.getId(), 12L, laptop.getId(), 3L));
+
+        // When
+        suggestionService.refreshPopularity();
+
+        // Then: la popularidad se mantiene al reindexar un producto por un cambio del catálogo
+        assertEquals(List.of(lamp.getId(), laptop.getId()), suggestedIds("la"));
+        when(productService.getAllProducts()).thenReturn(List.of(laptop, lamp));
+        suggestionService.rebuild();
+        assertEquals(List.of(lamp.getId(), laptop.getId()), suggestedIds("la"));
+    }
+
+    @Test
+    void shouldKeepCurrentRankingWhenOrderServiceIsUnavailable() {
+        // Given
+        when(orderPopularityClient.getOrderCountsByProduct()).thenReturn(Map.of(lamp.getId(), 12L));
+        suggestionService.refreshPopularity();
+        when(orderPopularityClient.getOrderCountsByProduct()).thenThrow(new ResourceAccessException("connection refused"));
+
+        // When
+        suggestionService.refreshPopularity();
+
+        // Then
+        assertEquals(List.of(lamp.getId(), laptop.getId()), suggestedIds("la"));
+    }
+
+    private List<UUID> suggestedIds(String prefix) {
+        return suggestionService.suggest(prefix).stream().map(ProductSuggestionResponse::getId).toList();
+    }
+
+    private static ProductResponse product(String name) {
+        ProductResponse product = new ProductResponse();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        return product;
+    }
+}
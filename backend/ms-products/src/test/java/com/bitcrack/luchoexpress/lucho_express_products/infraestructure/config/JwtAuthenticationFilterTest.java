@@ -0,0 +1,63 @@
+package com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config.InternalIdentityVerifierTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, verifierAt(ISSUED_AT));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldTrustSignedGatewayHeadersWithoutParsingJwt() throws Exception {
+        // Given
+        MockHttpServletRequest request = signedRequest(USER_ID, USERNAME, MULTI_ROLES, ISSUED_AT, MULTI_ROLES_SIGNATURE);
+        request.addHeader("Authorization", "Bearer original-token");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(USERNAME, authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(jwtService, never()).parseClaims(anyString());
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void shouldIgnoreTamperedHeadersWithoutToken() throws Exception {
+        // Given: rol cambiado a mano sin Authorization
+        MockHttpServletRequest request = signedRequest(USER_ID, USERNAME, "ADMIN", ISSUED_AT, SIGNATURE);
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then: la petición sigue como anónima
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtService);
+        assertSame(request, chain.getRequest());
+    }
+}
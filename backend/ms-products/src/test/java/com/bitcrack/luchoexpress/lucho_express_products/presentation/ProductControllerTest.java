@@ -0,0 +1,137 @@
+package com.bitcrack.luchoexpress.lucho_express_products.presentation;
+
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductPageResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.dto.ProductResponse;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.CatalogSnapshotService;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductSearchService;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductService;
+import com.bitcrack.luchoexpress.lucho_express_products.application.service.ProductSuggestionService;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.config.CatalogCachePolicy;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.GlobalExceptionHandler;
+import com.bitcrack.luchoexpress.lucho_express_products.infraestructure.exceptions.InvalidProductQueryException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ProductControllerTest {
+
+    private static final UUID PRODUCT_ID = UUID.fromString("0190a6f4-3c2b-7d8e-9f01-23456789abcd");
+    private static final UUID CATEGORY_ID = UUID.fromString("0190a6f4-3c2b-7d8e-9f01-000000000001");
+    private static final CatalogSnapshotService.SerializedView CATALOG = new CatalogSnapshotService.SerializedView(
+            ("[{\"id\":\"" + PRODUCT_ID + "\",\"name\":\"Café\"}]").getBytes(StandardCharsets.UTF_8), "\"catalog-v1\"");
+
+    private final ProductService productService = mock(ProductService.class);
+    private final CatalogSnapshotService catalogSnapshotService = mock(CatalogSnapshotService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ProductController(productService, catalogSnapshotService,
+                    mock(ProductSearchService.class), mock(ProductSuggestionService.class),
+                    new CatalogCachePolicy(Duration.ofSeconds(30))))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void shouldAlwaysServeCatalogArrayFromProductsEvenWithPagingParameters() throws Exception {
+        // Given
+        when(catalogSnapshotService.getProducts()).thenReturn(CATALOG);
+
+        // When / Then: el contrato de GET /api/products no cambia según los parámetros
+        mockMvc.perform(get("/api/products").param("page", "0").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"catalog-v1\""))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].id").value(PRODUCT_ID.toString()));
+        verify(productService, never()).getProducts(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenCatalogEtagMatches() throws Exception {
+        // Given
+        when(catalogSnapshotService.getProducts()).thenReturn(CATALOG);
+
+        // When / Then
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"catalog-v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldAlwaysServePageResponseFromProductsPage() throws Exception {
+        // Given
+        ProductResponse product = new ProductResponse();
+        product.setId(PRODUCT_ID);
+        product.setName("Café");
+        when(productService.getProducts(null, null, null, null, null, null))
+                .thenReturn(new ProductPageResponse(List.of(product), 0, 20, 1, 1));
+
+        // When / Then: sin parámetros también es una página, con los valores por defecto del servicio
+        mockMvc.perform(get("/api/products/page"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=30"))
+                .andExpect(jsonPath("$.items[0].id").value(PRODUCT_ID.toString()))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(20))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.totalPages").value(1));
+    }
+
+    @Test
+    void shouldPassFiltersAndPagingToService() throws Exception {
+        // Given
+        when(productService.getProducts(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ProductPageResponse(List.of(), 2, 5, 10, 2));
+
+        // When
+        mockMvc.perform(get("/api/products/page")
+                        .param("categoryId", CATEGORY_ID.toString())
+                        .param("minPrice", "10.50")
+                        .param("maxPrice", "99")
+                        .param("page", "2")
+                        .param("size", "5")
+                        .param("sort", "price,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        // Then
+        verify(productService).getProducts(CATEGORY_ID, new BigDecimal("10.50"), new BigDecimal("99"), 2, 5, "price,asc");
+    }
+
+    @Test
+    void shouldRejectInvalidPageQueryWithBadRequest() throws Exception {
+        // Given
+        when(productService.getProducts(any(), any(), any(), any(), any(), any()))
+                .thenThrow(new InvalidProductQueryException("size must be between 1 and 100"));
+
+        // When / Then
+        mockMvc.perform(get("/api/products/page").param("size", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("size must be between 1 and 100"));
+    }
+
+    @Test
+    void shouldRejectOversizedBatchWithBadRequest() throws Exception {
+        // Given
+        when(productService.getProductsByIds(any()))
+                .thenThrow(new InvalidProductQueryException("At most 100 product ids can be requested per batch, got 101"));
+
+        // When / Then
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + PRODUCT_ID + "\"]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 100 product ids can be requested per batch, got 101"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.application;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis.TrackingStatusRepository;
+
+/**
+ * Reconcilia en segundo plano las entradas de tracking cacheadas con ms-order.
+ * En modo WRITE_THROUGH es el único punto que consulta ms-order para entradas ya cacheadas,
+ * de modo que las lecturas quedan acotadas a un GET de Redis.
+ * Cada ejecución revisa unas max-entries-per-run entradas y continúa el SCAN donde lo dejó la anterior,
+ * así que con más entradas que ese límite el recorrido completo se reparte entre varias ejecuciones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrackingReconciliationSweeper {
+    
+    private final TrackingStatusRepository trackingStatusRepository;
+    private final TrackingService trackingService;
+    
+    @Value("${tracking.reconciliation.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracking.reconciliation.max-entries-per-run:500}")
+    private int maxEntriesPerRun;
+    
+    /** Cursor del SCAN en curso; las ejecuciones con fixedDelay nunca se solapan */
+    private String scanCursor = TrackingStatusRepository.ScanPage.END;
+    
+    @Scheduled(fixedDelayString = "${tracking.reconciliation.interval-ms:300000}",
+               initialDelayString = "${tracking.reconciliation.interval-ms:300000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        
+        TrackingStatusRepository.ScanPage page;
+        try {
+            page = trackingStatusRepository.scanOrderNumbers(scanCursor, maxEntriesPerRun);
+        } catch (Exception e) {
+            log.error("Tracking reconciliation sweep failed", e);
+            return;
+        }
+        
+        int checked = 0;
+        int changed = 0;
+        for (String orderNumber : page.orderNumbers()) {
+            try {
+                if (trackingService.reconcile(orderNumber)) {
+                    changed++;
+                }
+            } catch (Exception e) {
+                log.warn("Reconciliation failed for order {}: {}", orderNumber, e.getMessage());
+            }
+            checked++;
+        }
+        
+        scanCursor = page.cursor();
+        
+        log.info("Tracking reconciliation sweep finished: {} entries checked, {} reconciled, pass {}",
+                checked, changed, page.passCompleted() ? "completed" : "continues at cursor " + scanCursor);
+    }
+}
@@ -2,7 +2,7 @@ package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.applic
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.OrderStatusEnum;
@@ -11,35 +11,64 @@ import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrast
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.OrderServiceFeignClient;
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.CustomerServiceClient;
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.CustomerServiceFeignClient;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis.TrackingStatusRepository;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis.TrackingStatusRepository.SaveResult;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TrackingService {
     
-    private final RedisTemplate<String, TrackingStatus> redisTemplate;
+    private final TrackingStatusRepository trackingStatusRepository;
     private final OrderServiceClient orderServiceClient;
     private final CustomerServiceClient customerServiceClient;
-    private static final String TRACKING_KEY_PREFIX = "tracking:order:";
-    private static final long TTL_HOURS = 1;
     
-    public void updateTrackingStatus(TrackingStatus trackingStatus) {
-        String key = TRACKING_KEY_PREFIX + trackingStatus.getOrderNumber();
+    /**
+     * WRITE_THROUGH: ms-order empuja cada cambio de estado, así que una entrada en Redis se considera válida
+     * hasta su TTL y solo la reconcilia el TrackingReconciliationSweeper.
+     * VERIFY: cada lectura se contrasta con ms-order (comportamiento anterior, dos llamadas HTTP por GET).
+     */
+    public enum ConsistencyMode {
+        WRITE_THROUGH,
+        VERIFY
+    }
+    
+    @Value("${tracking.consistency.mode:WRITE_THROUGH}")
+    private ConsistencyMode consistencyMode = ConsistencyMode.WRITE_THROUGH;
+    
+    /**
+     * Guarda el tracking salvo que el guardado sea más reciente (updatedAt posterior).
+     * @return false si se descartó por ser una versión anterior a la guardada
+     */
+    public boolean updateTrackingStatus(TrackingStatus trackingStatus) {
+        // Un único script atómico: compara la versión, guarda e indica si la clave ya existía (sin GET/EXISTS previos)
+        SaveResult result = trackingStatusRepository.save(trackingStatus);
         
-        // Verificar si la clave existe
-        if (redisTemplate.hasKey(key)) {
-            log.info("Updating tracking status for order: {}", trackingStatus.getOrderNumber());
+        if (result == SaveResult.STALE) {
+            log.info("Ignored stale tracking status {} at {} for order: {}",
+                    trackingStatus.getStatus(), trackingStatus.getUpdatedAt(), trackingStatus.getOrderNumber());
+            return false;
+        }
+        if (result == SaveResult.UPDATED) {
+            log.info("Updated tracking status for order: {}", trackingStatus.getOrderNumber());
         } else {
-            log.info("Creating new tracking status for order: {}", trackingStatus.getOrderNumber());
+            log.info("Created new tracking status for order: {}", trackingStatus.getOrderNumber());
         }
         
-        // Guardar en Redis con TTL de 1 hora
-        redisTemplate.opsForValue().set(key, trackingStatus, TTL_HOURS, TimeUnit.HOURS);
-        
-        log.debug("Tracking status saved in Redis with key: {} and TTL: {} hours", key, TTL_HOURS);
+        log.debug("Tracking status saved in Redis with key: {} and TTL: {}",
+                TrackingStatusRepository.key(trackingStatus.getOrderNumber()), TrackingStatusRepository.TTL);
+        return true;
     }
     
     public TrackingStatus getTrackingStatus(String orderNumber) {
@@ -47,7 +76,110 @@ public class TrackingService {
     }
     
     public TrackingStatus getTrackingStatus(String orderNumber, boolean forceRefresh) {
-        String key = TRACKING_KEY_PREFIX + orderNumber;
+        if (consistencyMode == ConsistencyMode.WRITE_THROUGH) {
+            return getTrackingStatusWriteThrough(orderNumber, forceRefresh);
+        }
+        return getTrackingStatusVerified(orderNumber, forceRefresh);
+    }
+    
+    /**
+     * Resuelve varias órdenes de una vez con un único MGET a Redis y, como mucho, una única llamada a ms-order.
+     * En WRITE_THROUGH solo se piden a ms-order las órdenes ausentes de Redis; en VERIFY se piden todas
+     * (la misma consulta en lote), y lo que devuelve ms-order es lo que vale.
+     * Con ownerUserId (rol USER) las entradas de Redis de otros usuarios se descartan y ms-order filtra por usuario,
+     * así que pedir órdenes ajenas no provoca ninguna llamada por orden a ms-order ni a ms-customer.
+     * @param ownerUserId usuario dueño de las órdenes, o null para ADMIN/ROOT
+     * @return mapa orderNumber -> tracking (en el orden recibido) sin las órdenes inexistentes o ajenas
+     */
+    public Map<String, TrackingStatus> getTrackingStatuses(Collection<String> orderNumbers, UUID ownerUserId) {
+        Collection<String> uniqueOrderNumbers = new LinkedHashSet<>(orderNumbers);
+        
+        Map<String, TrackingStatus> cached = trackingStatusRepository.findAll(uniqueOrderNumbers);
+        List<String> toLoad = uniqueOrderNumbers.stream()
+                .filter(orderNumber -> consistencyMode == ConsistencyMode.VERIFY || !cached.containsKey(orderNumber))
+                .toList();
+        log.debug("Batch tracking lookup: {} orders requested, {} served from Redis, {} loaded from order service",
+                uniqueOrderNumbers.size(), uniqueOrderNumbers.size() - toLoad.size(), toLoad.size());
+        
+        Map<String, TrackingStatus> loaded = new HashMap<>();
+        if (!toLoad.isEmpty()) {
+            for (OrderServiceFeignClient.OrderTrackingDto order : orderServiceClient.getTracking(toLoad, ownerUserId)) {
+                TrackingStatus trackingStatus = toTrackingStatus(order);
+                TrackingStatus cachedStatus = cached.get(order.orderNumber());
+                if (cachedStatus == null || !isSameVersion(cachedStatus, trackingStatus)) {
+                    updateTrackingStatus(trackingStatus);
+                }
+                loaded.put(order.orderNumber(), trackingStatus);
+            }
+        }
+        
+        Map<String, TrackingStatus> result = new LinkedHashMap<>();
+        for (String orderNumber : uniqueOrderNumbers) {
+            TrackingStatus trackingStatus = toLoad.contains(orderNumber) ? loaded.get(orderNumber) : cached.get(orderNumber);
+            if (trackingStatus != null && (ownerUserId == null || ownerUserId.equals(trackingStatus.getUserId()))) {
+                result.put(orderNumber, trackingStatus);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Reconcilia una entrada cacheada con ms-order. Lo invoca el sweeper en segundo plano, nunca una lectura.
+     * Solo se elimina la entrada con un 404 confirmado; si ms-order falla se propaga la excepción y el sweeper
+     * deja la entrada intacta hasta la siguiente pasada.
+     * @return true si la entrada cambió (actualizada o eliminada)
+     */
+    public boolean reconcile(String orderNumber) {
+        TrackingStatus cachedStatus = trackingStatusRepository.find(orderNumber);
+        if (cachedStatus == null) {
+            return false;
+        }
+        
+        TrackingStatus trackingFromOrderService = loadTrackingFromOrderService(orderNumber);
+        if (trackingFromOrderService == null) {
+            log.warn("Reconciliation: removing cached tracking for order not found in order service: {}", orderNumber);
+            trackingStatusRepository.delete(orderNumber);
+            return true;
+        }
+        
+        if (isSameVersion(cachedStatus, trackingFromOrderService)) {
+            return false;
+        }
+        
+        log.warn("Reconciliation: cached tracking for order {} was stale (cached: {} at {}, order service: {} at {})",
+                orderNumber, cachedStatus.getStatus(), cachedStatus.getUpdatedAt(),
+                trackingFromOrderService.getStatus(), trackingFromOrderService.getUpdatedAt());
+        updateTrackingStatus(trackingFromOrderService);
+        return true;
+    }
+    
+    private TrackingStatus getTrackingStatusWriteThrough(String orderNumber, boolean forceRefresh) {
+        if (!forceRefresh) {
+            try {
+                TrackingStatus cachedStatus = trackingStatusRepository.find(orderNumber);
+                if (cachedStatus != null) {
+                    log.debug("Tracking cache hit for order: {}", orderNumber);
+                    return cachedStatus;
+                }
+            } catch (ClassCastException e) {
+                log.warn("Found corrupted data for order: {}. Deleting it. Error: {}", orderNumber, e.getMessage());
+                trackingStatusRepository.delete(orderNumber);
+            }
+        }
+        
+        // Cache miss (o refresh forzado): cargar desde ms-order y dejarlo en Redis
+        TrackingStatus trackingFromOrderService = loadTrackingFromOrderService(orderNumber);
+        if (trackingFromOrderService == null) {
+            log.info("Order not found in order service: {}", orderNumber);
+            return null;
+        }
+        
+        updateTrackingStatus(trackingFromOrderService);
+        return trackingFromOrderService;
+    }
+    
+    private TrackingStatus getTrackingStatusVerified(String orderNumber, boolean forceRefresh) {
+        String key = TrackingStatusRepository.key(orderNumber);
         log.info("Attempting to retrieve tracking status with key: {}, forceRefresh: {}", key, forceRefresh);
         
         try {
@@ -55,13 +187,9 @@ public class TrackingService {
             
             // Si no se fuerza el refresh, intentar obtener desde Redis
             if (!forceRefresh) {
-                Boolean keyExists = redisTemplate.hasKey(key);
-                log.info("Key exists in Redis: {}", keyExists);
-                
-                if (keyExists) {
-                    cachedStatus = redisTemplate.opsForValue().get(key);
-                    log.info("Retrieved cached object from Redis: {}", cachedStatus);
-                }
+                // Un solo GET: null indica que la clave no existe
+                cachedStatus = trackingStatusRepository.find(orderNumber);
+                log.info("Retrieved cached object from Redis: {}", cachedStatus);
             } else {
                 log.info("Force refresh requested, skipping Redis cache lookup");
             }
@@ -74,7 +202,7 @@ public class TrackingService {
                 // Si no existe en el servicio de órdenes, eliminar cache obsoleto si existe
                 if (cachedStatus != null) {
                     log.warn("Removing obsolete cached data for non-existent order: {}", orderNumber);
-                    redisTemplate.delete(key);
+                    trackingStatusRepository.delete(orderNumber);
                 }
                 return null;
             }
@@ -82,8 +210,7 @@ public class TrackingService {
             // Si hay datos en cache y no se fuerza el refresh, comparar consistencia
             if (cachedStatus != null && !forceRefresh) {
                 // Verificar si el estado en cache coincide con el del servicio de órdenes
-                if (cachedStatus.getStatus().equals(trackingFromOrderService.getStatus()) &&
-                    cachedStatus.getUpdatedAt().equals(trackingFromOrderService.getUpdatedAt())) {
+                if (isSameVersion(cachedStatus, trackingFromOrderService)) {
                     log.info("Cache is consistent with order service for order: {} with status: {}", 
                             orderNumber, cachedStatus.getStatus());
                     return cachedStatus;
@@ -104,13 +231,13 @@ public class TrackingService {
         } catch (ClassCastException e) {
             log.warn("Found corrupted data for order: {}. Deleting and returning null. Error: {}", orderNumber, e.getMessage());
             // Eliminar la clave corrupta y intentar cargar desde el servicio de órdenes
-            redisTemplate.delete(key);
+            trackingStatusRepository.delete(orderNumber);
             return loadTrackingFromOrderService(orderNumber);
         } catch (Exception e) {
             log.error("Error retrieving tracking status for order: {} with key: {}", orderNumber, key, e);
             // En caso de error, intentar retornar datos desde cache si existen
             try {
-                TrackingStatus fallbackStatus = redisTemplate.opsForValue().get(key);
+                TrackingStatus fallbackStatus = trackingStatusRepository.find(orderNumber);
                 if (fallbackStatus != null) {
                     log.warn("Returning cached data as fallback for order: {}", orderNumber);
                     return fallbackStatus;
@@ -122,41 +249,59 @@ public class TrackingService {
         }
     }
     
+    /**
+     * Dos entradas son la misma versión si coinciden estado y updatedAt.
+     * updatedAt viaja desde ms-order con precisión de segundos, por eso se trunca antes de comparar.
+     */
+    private boolean isSameVersion(TrackingStatus cached, TrackingStatus fromOrderService) {
+        return cached.getStatus() == fromOrderService.getStatus() &&
+               Objects.equals(truncate(cached), truncate(fromOrderService));
+    }
+    
+    private static LocalDateTime truncate(TrackingStatus trackingStatus) {
+        return trackingStatus.getUpdatedAt() != null
+                ? trackingStatus.getUpdatedAt().truncatedTo(ChronoUnit.SECONDS)
+                : null;
+    }
+    
+    /**
+     * Carga el tracking de una orden desde ms-order.
+     * @return null solo si ms-order confirma que la orden no existe (404). Cualquier otro fallo (timeout, 5xx,
+     * conexión rechazada) se propaga: "no sé" no debe tratarse como "no existe", o se borraría caché válida.
+     */
     private TrackingStatus loadTrackingFromOrderService(String orderNumber) {
-        try {
-            log.info("Loading order information from order service for orderNumber: {}", orderNumber);
-            
-            OrderServiceFeignClient.OrderDto orderDto = orderServiceClient.getOrderByOrderNumber(orderNumber);
-            
-            if (orderDto != null) {
-                log.info("Found order in order service: {}", orderDto);
-                
-                // Crear TrackingStatus desde la información de la orden
-                TrackingStatus trackingStatus = new TrackingStatus();
-                trackingStatus.setOrderId(orderDto.id());
-                trackingStatus.setOrderNumber(orderDto.orderNumber());
-                
-                // Obtener el userId del customer
-                UUID userId = getUserIdFromCustomer(orderDto.customerId());
-                if (userId != null) {
-                    trackingStatus.setUserId(userId);
-                } else {
-                    log.warn("Could not get userId for customerId: {}, using customerId as fallback", orderDto.customerId());
-                    trackingStatus.setUserId(orderDto.customerId()); // Fallback si no se encuentra el customer
-                }
-                
-                trackingStatus.setStatus(OrderStatusEnum.valueOf(orderDto.status()));
-                trackingStatus.setUpdatedAt(orderDto.updatedAt());
-                
-                return trackingStatus;
-            }
-            
-            return null;
-            
-        } catch (Exception e) {
-            log.error("Error loading order from order service for orderNumber: {}", orderNumber, e);
+        log.info("Loading order information from order service for orderNumber: {}", orderNumber);
+        
+        OrderServiceFeignClient.OrderDto orderDto = orderServiceClient.getOrderByOrderNumber(orderNumber);
+        if (orderDto == null) {
             return null;
         }
+        
+        log.info("Found order in order service: {}", orderDto);
+        
+        // Crear TrackingStatus desde la información de la orden
+        TrackingStatus trackingStatus = new TrackingStatus();
+        trackingStatus.setOrderId(orderDto.id());
+        trackingStatus.setOrderNumber(orderDto.orderNumber());
+        
+        // Obtener el userId del customer
+        UUID userId = getUserIdFromCustomer(orderDto.customerId());
+        if (userId != null) {
+            trackingStatus.setUserId(userId);
+        } else {
+            log.warn("Could not get userId for customerId: {}, using customerId as fallback", orderDto.customerId());
+            trackingStatus.setUserId(orderDto.customerId()); // Fallback si no se encuentra el customer
+        }
+        
+        trackingStatus.setStatus(OrderStatusEnum.valueOf(orderDto.status()));
+        trackingStatus.setUpdatedAt(orderDto.updatedAt());
+        
+        return trackingStatus;
+    }
+    
+    private static TrackingStatus toTrackingStatus(OrderServiceFeignClient.OrderTrackingDto order) {
+        return new TrackingStatus(order.orderId(), order.orderNumber(), order.userId(),
+                OrderStatusEnum.valueOf(order.status()), order.updatedAt());
     }
     
     private UUID getUserIdFromCustomer(UUID customerId) {
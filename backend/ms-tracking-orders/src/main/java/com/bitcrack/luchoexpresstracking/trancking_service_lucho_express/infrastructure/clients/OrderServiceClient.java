@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -39,4 +41,20 @@ public class OrderServiceClient {
             throw new RuntimeException("Error communicating with order service", e);
         }
     }
+    
+    /**
+     * Tracking de varias órdenes en una sola llamada.
+     * @param userId si no es null, ms-order solo devuelve las órdenes de ese usuario
+     * @return las órdenes encontradas (las inexistentes o ajenas no aparecen)
+     */
+    public List<OrderServiceFeignClient.OrderTrackingDto> getTracking(Collection<String> orderNumbers, UUID userId) {
+        try {
+            log.info("Fetching tracking for {} orders from order service", orderNumbers.size());
+            return orderServiceFeignClient.getTracking(
+                    new OrderServiceFeignClient.TrackingLookupRequest(userId, List.copyOf(orderNumbers)));
+        } catch (FeignException e) {
+            log.error("Error communicating with order service for {} orders", orderNumbers.size(), e);
+            throw new RuntimeException("Error communicating with order service", e);
+        }
+    }
 }
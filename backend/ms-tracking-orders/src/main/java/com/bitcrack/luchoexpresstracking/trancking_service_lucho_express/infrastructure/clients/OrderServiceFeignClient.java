@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(name = "order-service", url = "${order.service.url:http://localhost:8084}")
@@ -17,6 +20,10 @@ public interface OrderServiceFeignClient {
     @GetMapping("/api/orders/by-order-number/{orderNumber}")
     OrderDto getOrderByOrderNumber(@PathVariable("orderNumber") String orderNumber);
     
+    // Tracking de un lote en una consulta; con userId ms-order solo devuelve las órdenes de ese usuario
+    @PostMapping("/api/orders/internal/tracking")
+    List<OrderTrackingDto> getTracking(@RequestBody TrackingLookupRequest request);
+    
     // DTO for communication with order service
     @JsonIgnoreProperties(ignoreUnknown = true)
     record OrderDto(
@@ -27,4 +34,18 @@ public interface OrderServiceFeignClient {
         LocalDateTime createdAt,
         LocalDateTime updatedAt
     ) {}
+    
+    record TrackingLookupRequest(
+        UUID userId,
+        List<String> orderNumbers
+    ) {}
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record OrderTrackingDto(
+        UUID orderId,
+        String orderNumber,
+        UUID userId,
+        String status,
+        LocalDateTime updatedAt
+    ) {}
 }
@@ -0,0 +1,85 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pool de conexiones keep-alive compartido por los clientes Feign (Apache HttpClient 5).
+ * El tamaño global y el timeout de espera por una conexión se configuran con spring.cloud.openfeign.httpclient.*;
+ * aquí se fija el máximo de conexiones de cada servicio destino y se publican métricas de uso del pool:
+ * httpcomponents.httpclient.pool.* (totales) y feign.pool.connections{target, state} por destino.
+ */
+@Component
+@Slf4j
+public class FeignConnectionPool implements MeterBinder {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Map<String, HttpRoute> routes = new LinkedHashMap<>();
+
+    public FeignConnectionPool(
+            ObjectProvider<HttpClientConnectionManager> connectionManager,
+            @Value("${order.service.url:http://localhost:8084}") String orderServiceUrl,
+            @Value("${customer.service.url:http://localhost:8082}") String customerServiceUrl,
+            @Value("${feign.pool.order-service.max-connections:50}") int orderServiceMaxConnections,
+            @Value("${feign.pool.customer-service.max-connections:20}") int customerServiceMaxConnections) {
+        this.connectionManager = connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool ? pool : null;
+        if (this.connectionManager == null) {
+            log.warn("Feign is not using a pooled Apache HttpClient 5 connection manager; per-target limits are not applied");
+            return;
+        }
+        limit("order-service", orderServiceUrl, orderServiceMaxConnections);
+        limit("customer-service", customerServiceUrl, customerServiceMaxConnections);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (connectionManager == null) {
+            return;
+        }
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "feign").bindTo(registry);
+        routes.forEach((target, route) -> {
+            gauge(registry, target, route, "leased", PoolStats::getLeased);
+            gauge(registry, target, route, "available", PoolStats::getAvailable);
+            gauge(registry, target, route, "pending", PoolStats::getPending);
+            gauge(registry, target, route, "max", PoolStats::getMax);
+        });
+    }
+
+    private void limit(String target, String url, int maxConnections) {
+        HttpRoute route = new HttpRoute(host(url));
+        connectionManager.setMaxPerRoute(route, maxConnections);
+        routes.put(target, route);
+        log.info("Feign connection pool for {} ({}): max {} connections", target, route.getTargetHost(), maxConnections);
+    }
+
+    private void gauge(MeterRegistry registry, String target, HttpRoute route, String state, ToIntFunction<PoolStats> stat) {
+        Gauge.builder("feign.pool.connections", connectionManager, pool -> stat.applyAsInt(pool.getStats(route)))
+                .description("Connections of the Feign pool towards a target service")
+                .tag("target", target)
+                .tag("state", state)
+                .register(registry);
+    }
+
+    // Las rutas del pool usan el puerto efectivo: http://host equivale a http://host:80
+    private static HttpHost host(String url) {
+        URI uri = URI.create(url);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return new HttpHost(uri.getScheme(), uri.getHost(), port);
+    }
+}
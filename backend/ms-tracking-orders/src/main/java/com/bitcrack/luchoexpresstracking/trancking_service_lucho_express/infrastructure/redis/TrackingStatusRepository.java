@@ -0,0 +1,200 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.TrackingStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acceso a Redis para el tracking de órdenes. Cada operación es un único comando (un round trip):
+ * GET con chequeo de null en lugar de EXISTS + GET, y un SET condicional (script Lua vía EVAL) que además informa
+ * si la clave ya existía. La latencia de cada comando se publica como histograma en
+ * tracking.redis.command{command=..., operation=...}: el guardado aparece como command=EVAL, operation=compare-and-set.
+ */
+@Repository
+@Slf4j
+public class TrackingStatusRepository {
+
+    public static final String KEY_PREFIX = "tracking:order:";
+    public static final Duration TTL = Duration.ofHours(1);
+
+    /**
+     * SET condicional con TTL en un solo round trip: si la entrada guardada tiene un updatedAt posterior al recibido
+     * no se sobrescribe (-1); si no, se guarda y se devuelve si la clave existía (1) o no (0).
+     * updatedAt se serializa como ISO-8601 y se compara con precisión de segundos (los 19 primeros caracteres),
+     * que es la que devuelve ms-order en sus lecturas; dentro del mismo segundo gana la última escritura.
+     * Un valor que no se puede decodificar se sobrescribe.
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current then " +
+            "  local ok, stored = pcall(cjson.decode, current) " +
+            "  if ok and type(stored) == 'table' and type(stored.updatedAt) == 'string' " +
+            "     and string.sub(stored.updatedAt, 1, 19) > ARGV[3] then " +
+            "    return -1 " +
+            "  end " +
+            "end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) " +
+            "if current then return 1 end " +
+            "return 0",
+            Long.class);
+
+    /**
+     * Un paso de SCAN desde un cursor dado. Spring Data Redis siempre empieza el SCAN en 0 y no permite continuar
+     * un cursor guardado, así que el paso se ejecuta en el servidor y devuelve {cursor, {claves}}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCAN_SCRIPT = new DefaultRedisScript<>(
+            "return redis.call('SCAN', ARGV[1], 'MATCH', ARGV[2], 'COUNT', ARGV[3])",
+            List.class);
+
+    /** Deserializa como String el cursor y cada clave de la respuesta anidada del SCAN */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> SCAN_REPLY_SERIALIZER = (RedisSerializer) RedisSerializer.string();
+
+    private static final int SCAN_COUNT = 100;
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public enum SaveResult {
+        CREATED,
+        UPDATED,
+        /** La entrada guardada es más reciente: el valor recibido se descartó */
+        STALE
+    }
+
+    private static final RedisSerializer<Long> LONG_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<String, TrackingStatus> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TrackingStatusRepository(RedisTemplate<String, TrackingStatus> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static String key(String orderNumber) {
+        return KEY_PREFIX + orderNumber;
+    }
+
+    /**
+     * @return el tracking cacheado, o null si no existe
+     */
+    public TrackingStatus find(String orderNumber) {
+        return timer("GET", "get").record(() -> redisTemplate.opsForValue().get(key(orderNumber)));
+    }
+
+    /**
+     * Lee varias entradas con un único MGET.
+     * @return mapa orderNumber -> tracking solo con las entradas que existen en Redis
+     */
+    public Map<String, TrackingStatus> findAll(Collection<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Map.of();
+        }
+        List<String> orderedNumbers = List.copyOf(orderNumbers);
+        List<String> keys = orderedNumbers.stream().map(TrackingStatusRepository::key).toList();
+
+        List<TrackingStatus> values = timer("MGET", "get-many").record(() -> redisTemplate.opsForValue().multiGet(keys));
+
+        Map<String, TrackingStatus> found = new HashMap<>();
+        if (values != null) {
+            for (int i = 0; i < orderedNumbers.size(); i++) {
+                TrackingStatus value = values.get(i);
+                if (value != null) {
+                    found.put(orderedNumbers.get(i), value);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Guarda el tracking con el TTL por defecto, salvo que la entrada guardada sea más reciente (ver SAVE_SCRIPT).
+     * Así una foto antigua entregada tarde por el outbox de ms-order no pisa a una más nueva.
+     */
+    public SaveResult save(TrackingStatus trackingStatus) {
+        byte[] value = valueSerializer().serialize(trackingStatus);
+        byte[] ttlSeconds = Long.toString(TTL.toSeconds()).getBytes(StandardCharsets.UTF_8);
+        byte[] version = VERSION_FORMAT.format(trackingStatus.getUpdatedAt()).getBytes(StandardCharsets.UTF_8);
+
+        Long result = timer("EVAL", "compare-and-set").record(() -> redisTemplate.execute(SAVE_SCRIPT, RedisSerializer.byteArray(), LONG_SERIALIZER,
+                List.of(key(trackingStatus.getOrderNumber())), value, ttlSeconds, version));
+        if (result != null && result < 0) {
+            return SaveResult.STALE;
+        }
+        return result != null && result == 1L ? SaveResult.UPDATED : SaveResult.CREATED;
+    }
+
+    public void delete(String orderNumber) {
+        timer("DEL", "delete").record(() -> redisTemplate.delete(key(orderNumber)));
+    }
+
+    /**
+     * Un tramo de un recorrido SCAN (no bloqueante, a diferencia de KEYS) sobre los números de orden cacheados.
+     * Empieza en cursor ("0" = recorrido nuevo) y pide lotes de SCAN_COUNT claves hasta reunir al menos limit
+     * o completar el recorrido; puede devolver hasta un lote más que limit, porque un lote no se puede devolver
+     * a medias sin saltarse claves al continuar. El cursor devuelto permite seguir en la siguiente llamada.
+     */
+    public ScanPage scanOrderNumbers(String cursor, int limit) {
+        List<String> orderNumbers = new ArrayList<>();
+        String next = cursor == null ? ScanPage.END : cursor;
+        do {
+            String from = next;
+            List<?> reply = timer("EVAL", "scan").record(() -> redisTemplate.execute(SCAN_SCRIPT, RedisSerializer.string(),
+                    SCAN_REPLY_SERIALIZER, List.of(), from, KEY_PREFIX + "*", Integer.toString(SCAN_COUNT)));
+            if (reply == null || reply.size() != 2) {
+                throw new IllegalStateException("Unexpected SCAN reply: " + reply);
+            }
+            next = (String) reply.get(0);
+            for (Object key : (List<?>) reply.get(1)) {
+                orderNumbers.add(((String) key).substring(KEY_PREFIX.length()));
+            }
+        } while (!ScanPage.END.equals(next) && orderNumbers.size() < limit);
+        return new ScanPage(orderNumbers, next);
+    }
+
+    /**
+     * @param cursor cursor con el que continuar el recorrido; "0" cuando el recorrido ha terminado
+     */
+    public record ScanPage(List<String> orderNumbers, String cursor) {
+
+        public static final String END = "0";
+
+        public boolean passCompleted() {
+            return END.equals(cursor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<TrackingStatus> valueSerializer() {
+        return (RedisSerializer<TrackingStatus>) redisTemplate.getValueSerializer();
+    }
+
+    private Timer timer(String command, String operation) {
+        return timers.computeIfAbsent(operation, o -> Timer.builder("tracking.redis.command")
+                .description("Latency of Redis commands issued by the tracking cache")
+                .tag("command", command)
+                .tag("operation", o)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Valida las cabeceras X-Auth-* firmadas por el api-gateway tras verificar el JWT.
+ * Solo actúa con internal-auth.trust-gateway-headers=true; si faltan, la firma no cuadra o son más antiguas
+ * que internal-auth.max-age, se ignoran y se vuelve a la verificación del JWT.
+ * <p>
+ * Copia idéntica (salvo el paquete) en ms-order, ms-products y ms-tracking-orders: cada servicio se construye
+ * por separado y no hay un módulo común. El gateway firma con InternalIdentityHeaders.sign sobre el mismo
+ * {@link #canonicalPayload formato}. Los cuatro tests (InternalIdentityVerifierTest en cada servicio e
+ * InternalIdentityHeadersTest en el gateway) comparten el mismo vector de prueba, así que si una copia
+ * cambia el formato su test falla: hay que cambiar las cuatro a la vez.
+ */
+@Component
+@Slf4j
+public class InternalIdentityVerifier {
+    
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+    public static final String USERNAME_HEADER = "X-Auth-Username";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String ISSUED_AT_HEADER = "X-Auth-Issued-At";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+    
+    public record InternalIdentity(String userId, String username, List<String> roles) {}
+    
+    private final boolean trustGatewayHeaders;
+    private final byte[] secret;
+    private final Duration maxAge;
+    private final LongSupplier clock;
+    
+    @Autowired
+    public InternalIdentityVerifier(
+            @Value("${internal-auth.trust-gateway-headers:false}") boolean trustGatewayHeaders,
+            @Value("${internal-auth.secret:}") String secret,
+            @Value("${internal-auth.max-age:30s}") Duration maxAge) {
+        this(trustGatewayHeaders, secret, maxAge, System::currentTimeMillis);
+    }
+    
+    InternalIdentityVerifier(boolean trustGatewayHeaders, String secret, Duration maxAge, LongSupplier clock) {
+        if (trustGatewayHeaders && secret.isBlank()) {
+            throw new IllegalStateException("internal-auth.secret is required when internal-auth.trust-gateway-headers=true");
+        }
+        this.trustGatewayHeaders = trustGatewayHeaders;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+    
+    public Optional<InternalIdentity> verify(HttpServletRequest request) {
+        if (!trustGatewayHeaders) {
+            return Optional.empty();
+        }
+        String userId = request.getHeader(USER_ID_HEADER);
+        String username = request.getHeader(USERNAME_HEADER);
+        String roles = request.getHeader(ROLES_HEADER);
+        String issuedAt = request.getHeader(ISSUED_AT_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (userId == null || username == null || roles == null || issuedAt == null || signature == null) {
+            return Optional.empty();
+        }
+        
+        long issuedAtMillis;
+        try {
+            issuedAtMillis = Long.parseLong(issuedAt);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        // Simétrico: tampoco se aceptan cabeceras emitidas "en el futuro" más allá del desfase tolerado
+        long ageMillis = Math.abs(clock.getAsLong() - issuedAtMillis);
+        if (ageMillis > maxAge.toMillis()) {
+            log.warn("Ignoring gateway identity headers issued {} ms ago", ageMillis);
+            return Optional.empty();
+        }
+        
+        byte[] expected = sign(canonicalPayload(userId, username, roles, issuedAtMillis));
+        byte[] provided;
+        try {
+            provided = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(expected, provided)) {
+            log.warn("Ignoring gateway identity headers with an invalid signature");
+            return Optional.empty();
+        }
+        
+        List<String> roleList = Arrays.stream(roles.split(",")).map(String::trim).filter(r -> !r.isEmpty()).toList();
+        return Optional.of(new InternalIdentity(userId, username, roleList));
+    }
+    
+    /**
+     * Texto firmado por el gateway: userId, username, roles (la cabecera tal cual, separados por comas) e
+     * issued-at en ms desde epoch, unidos por '\n'. La firma es HMAC-SHA256 con internal-auth.secret,
+     * en Base64 URL sin padding (aquí se acepta también con padding).
+     */
+    static String canonicalPayload(String userId, String username, String roles, long issuedAtMillis) {
+        return userId + "\n" + username + "\n" + roles + "\n" + issuedAtMillis;
+    }
+    
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
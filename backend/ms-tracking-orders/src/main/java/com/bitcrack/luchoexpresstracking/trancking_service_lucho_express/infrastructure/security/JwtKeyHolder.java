@@ -0,0 +1,164 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the HMAC signing key and an immutable {@link JwtParser} derived once from the JWT secret,
+ * instead of rebuilding both on every call.
+ * <p>
+ * The secret can be rotated without a restart, either by calling {@link #rotate(String)} or by pointing
+ * {@code jwt.secret-file} at a file that is re-read periodically. Tokens signed with the previous secret
+ * are still accepted during {@code jwt.rotation.grace-period}.
+ */
+@Component
+@Slf4j
+public class JwtKeyHolder {
+
+    private final AtomicReference<KeyRing> keyRing = new AtomicReference<>();
+    private final List<Runnable> rotationListeners = new CopyOnWriteArrayList<>();
+    private final String secretFile;
+    private final Duration gracePeriod;
+    private final Timer parseSuccessTimer;
+    private final Timer parseFailureTimer;
+
+    public JwtKeyHolder(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.secret-file:}") String secretFile,
+            @Value("${jwt.rotation.grace-period:24h}") Duration gracePeriod,
+            MeterRegistry meterRegistry) {
+        this.secretFile = secretFile;
+        this.gracePeriod = gracePeriod;
+        this.parseSuccessTimer = Timer.builder("jwt.parse")
+                .description("Time spent verifying and parsing JWTs")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.parseFailureTimer = Timer.builder("jwt.parse")
+                .description("Time spent verifying and parsing JWTs")
+                .tag("result", "failure")
+                .register(meterRegistry);
+
+        String initialSecret = secretFile.isBlank() ? secret : readSecretFile().orElse(secret);
+        keyRing.set(new KeyRing(KeyMaterial.of(initialSecret), null, Instant.MIN));
+    }
+
+    public SecretKey getSigningKey() {
+        return keyRing.get().current().key();
+    }
+
+    public JwtParser getParser() {
+        return keyRing.get().current().parser();
+    }
+
+    /**
+     * Verify the token signature and return its claims, falling back to the previous key during a rotation.
+     */
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parseWithKeyRing(token);
+            parseSuccessTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            return claims;
+        } catch (RuntimeException e) {
+            parseFailureTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+    }
+
+    /**
+     * Replace the active secret. The previous one keeps validating tokens until the grace period ends.
+     */
+    public void rotate(String newSecret) {
+        KeyMaterial next = KeyMaterial.of(newSecret);
+        KeyRing ring = keyRing.get();
+        if (MessageDigest.isEqual(ring.current().fingerprint(), next.fingerprint())) {
+            return;
+        }
+
+        keyRing.set(new KeyRing(next, ring.current(), Instant.now().plus(gracePeriod)));
+        log.info("JWT signing key rotated; previous key accepted for {}", gracePeriod);
+        rotationListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Register a callback invoked after each rotation (e.g. to drop caches of verified tokens).
+     */
+    public void onRotation(Runnable listener) {
+        rotationListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.secret-file.check-interval-ms:30000}")
+    public void reloadSecretFile() {
+        if (secretFile.isBlank()) {
+            return;
+        }
+        readSecretFile().ifPresent(this::rotate);
+    }
+
+    private Claims parseWithKeyRing(String token) {
+        KeyRing ring = keyRing.get();
+        try {
+            return ring.current().parser().parseClaimsJws(token).getBody();
+        } catch (SecurityException e) {
+            if (ring.previous() != null && Instant.now().isBefore(ring.previousValidUntil())) {
+                return ring.previous().parser().parseClaimsJws(token).getBody();
+            }
+            throw e;
+        }
+    }
+
+    private Optional<String> readSecretFile() {
+        try {
+            String content = Files.readString(Path.of(secretFile), StandardCharsets.UTF_8).trim();
+            return content.isEmpty() ? Optional.empty() : Optional.of(content);
+        } catch (IOException e) {
+            log.warn("Could not read JWT secret file {}: {}", secretFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private record KeyRing(KeyMaterial current, KeyMaterial previous, Instant previousValidUntil) {}
+
+    private record KeyMaterial(SecretKey key, JwtParser parser, byte[] fingerprint) {
+
+        static KeyMaterial of(String secret) {
+            byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            SecretKey key = Keys.hmacShaKeyFor(keyBytes);
+            JwtParser parser = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build();
+            return new KeyMaterial(key, parser, sha256(keyBytes));
+        }
+
+        private static byte[] sha256(byte[] bytes) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
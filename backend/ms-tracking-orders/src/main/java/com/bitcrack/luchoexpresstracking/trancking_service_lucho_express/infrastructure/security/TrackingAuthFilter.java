@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -25,6 +26,7 @@ import java.util.regex.Pattern;
 public class TrackingAuthFilter implements Filter {
 
     private final JwtUtil jwtUtil;
+    private final InternalIdentityVerifier internalIdentityVerifier;
     private final TrackingService trackingService;
     
     @Value("${tracking.post.api-key}")
@@ -34,6 +36,13 @@ public class TrackingAuthFilter implements Filter {
     
     // Pattern para GET /api/tracking/{orderNumber}
     private static final Pattern GET_TRACKING_PATTERN = Pattern.compile("^/api/tracking/([^/]+)$");
+    private static final String BATCH_TRACKING_PATH = "/api/tracking/batch";
+    
+    // Identidad del token validado, para que el controller aplique la propiedad en memoria
+    public static final String USER_ID_ATTRIBUTE = "tracking.auth.userId";
+    public static final String ROLES_ATTRIBUTE = "tracking.auth.roles";
+    // Tracking ya resuelto para la comprobación de propiedad; el controller lo reutiliza en lugar de volver a cargarlo
+    public static final String TRACKING_STATUS_ATTRIBUTE = "tracking.auth.trackingStatus";
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -54,6 +63,13 @@ public class TrackingAuthFilter implements Filter {
                 return;
             }
         }
+        // POST /api/tracking/batch - requiere JWT, la propiedad se comprueba por orden en el controller
+        else if ("POST".equals(method) && BATCH_TRACKING_PATH.equals(requestURI)) {
+            if (!validateJwtForBatch(httpRequest)) {
+                sendForbiddenResponse(httpResponse, "Access denied: insufficient permissions");
+                return;
+            }
+        }
         // GET /api/tracking/{orderNumber} - requiere JWT
         else if ("GET".equals(method) && GET_TRACKING_PATTERN.matcher(requestURI).matches()) {
             Matcher matcher = GET_TRACKING_PATTERN.matcher(requestURI);
@@ -89,22 +105,14 @@ public class TrackingAuthFilter implements Filter {
 
     private boolean validateJwtForTracking(HttpServletRequest request, String orderNumber) {
         try {
-            // Extraer token JWT
-            String token = extractToken(request);
-            if (token == null) {
-                log.warn("Missing JWT token for GET /api/tracking/{}", orderNumber);
-                return false;
-            }
-
-            // Validar token
-            if (!jwtUtil.validateToken(token)) {
-                log.warn("Invalid or expired JWT token for GET /api/tracking/{}", orderNumber);
+            Optional<Identity> identity = resolveIdentity(request);
+            if (identity.isEmpty()) {
+                log.warn("Missing, invalid or expired JWT token for GET /api/tracking/{}", orderNumber);
                 return false;
             }
 
-            // Extraer información del usuario
-            UUID userIdFromToken = jwtUtil.extractUserId(token);
-            List<String> roles = jwtUtil.extractRoles(token);
+            UUID userIdFromToken = identity.get().userId();
+            List<String> roles = identity.get().roles();
 
             log.debug("JWT validation for order {}: userId={}, roles={}", orderNumber, userIdFromToken, roles);
 
@@ -116,7 +124,7 @@ public class TrackingAuthFilter implements Filter {
 
             // Para usuarios USER, verificar propiedad del recurso
             if (roles.contains("USER")) {
-                return checkUserOwnership(orderNumber, userIdFromToken);
+                return checkUserOwnership(request, orderNumber, userIdFromToken);
             }
 
             log.warn("User has no valid roles for access to order {}: {}", orderNumber, roles);
@@ -128,13 +136,61 @@ public class TrackingAuthFilter implements Filter {
         }
     }
 
-    private boolean checkUserOwnership(String orderNumber, UUID userIdFromToken) {
+    private boolean validateJwtForBatch(HttpServletRequest request) {
+        try {
+            Optional<Identity> identity = resolveIdentity(request);
+            if (identity.isEmpty()) {
+                log.warn("Missing or invalid JWT token for POST {}", BATCH_TRACKING_PATH);
+                return false;
+            }
+            
+            UUID userIdFromToken = identity.get().userId();
+            List<String> roles = identity.get().roles();
+            if (!roles.contains("ROOT") && !roles.contains("ADMIN") && !roles.contains("USER")) {
+                log.warn("User has no valid roles for batch tracking: {}", roles);
+                return false;
+            }
+            
+            request.setAttribute(USER_ID_ATTRIBUTE, userIdFromToken);
+            request.setAttribute(ROLES_ATTRIBUTE, roles);
+            return true;
+            
+        } catch (Exception e) {
+            log.error("JWT validation error for batch tracking", e);
+            return false;
+        }
+    }
+
+    /**
+     * Identidad del llamante: la firmada por el api-gateway si el modo trust está activo,
+     * o la del JWT verificado aquí en caso contrario.
+     */
+    private Optional<Identity> resolveIdentity(HttpServletRequest request) {
+        Optional<InternalIdentityVerifier.InternalIdentity> gatewayIdentity = internalIdentityVerifier.verify(request);
+        if (gatewayIdentity.isPresent()) {
+            return Optional.of(new Identity(UUID.fromString(gatewayIdentity.get().userId()), gatewayIdentity.get().roles()));
+        }
+
+        String token = extractToken(request);
+        if (token == null || !jwtUtil.validateToken(token)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Identity(jwtUtil.extractUserId(token), jwtUtil.extractRoles(token)));
+    }
+
+    private record Identity(UUID userId, List<String> roles) {}
+
+    private boolean checkUserOwnership(HttpServletRequest request, String orderNumber, UUID userIdFromToken) {
         try {
-            TrackingStatus trackingStatus = trackingService.getTrackingStatus(orderNumber);
+            boolean forceRefresh = Boolean.parseBoolean(request.getParameter("refresh"));
+            TrackingStatus trackingStatus = trackingService.getTrackingStatus(orderNumber, forceRefresh);
             if (trackingStatus != null) {
                 boolean isOwner = userIdFromToken.equals(trackingStatus.getUserId());
                 log.debug("Ownership check for order {}: user {} owns it: {}", 
                          orderNumber, userIdFromToken, isOwner);
+                if (isOwner) {
+                    request.setAttribute(TRACKING_STATUS_ATTRIBUTE, trackingStatus);
+                }
                 return isOwner;
             }
             log.warn("Tracking status not found for order: {}", orderNumber);
@@ -2,16 +2,20 @@ package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.presen
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.application.TrackingService;
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.TrackingStatus;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security.TrackingAuthFilter;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/tracking")
@@ -23,15 +27,22 @@ public class TrackingController {
     
     private final TrackingService trackingService;
     
+    @Value("${tracking.batch.max-size:200}")
+    private int batchMaxSize;
+    
     @PostMapping
     public ResponseEntity<Map<String, String>> updateTrackingStatus(@Valid @RequestBody TrackingStatus trackingStatus) {
         log.info("Received tracking update for order: {} with status: {}", 
                 trackingStatus.getOrderNumber(), trackingStatus.getStatus());
         
         try {
-            trackingService.updateTrackingStatus(trackingStatus);
-            
             Map<String, String> response = new HashMap<>();
+            if (!trackingService.updateTrackingStatus(trackingStatus)) {
+                // 200 y no error: para el outbox de ms-order la entrega está completa, no debe reintentarla
+                response.put("message", "A newer tracking status is already stored, update ignored");
+                return ResponseEntity.ok(response);
+            }
+            
             response.put("message", "Tracking status updated successfully");
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -49,11 +60,16 @@ public class TrackingController {
     
     @GetMapping("/{orderNumber}")
     public ResponseEntity<?> getTrackingStatus(@PathVariable String orderNumber,
-                                               @RequestParam(value = "refresh", defaultValue = "false") boolean forceRefresh) {
+                                               @RequestParam(value = "refresh", defaultValue = "false") boolean forceRefresh,
+                                               @RequestAttribute(value = TrackingAuthFilter.TRACKING_STATUS_ATTRIBUTE, required = false)
+                                               TrackingStatus authorizedTrackingStatus) {
         log.info("Retrieving tracking status for order: {} with forceRefresh: {}", orderNumber, forceRefresh);
         
         try {
-            TrackingStatus trackingStatus = trackingService.getTrackingStatus(orderNumber, forceRefresh);
+            // Si TrackingAuthFilter ya lo cargó para comprobar la propiedad (rol USER), no se vuelve a resolver
+            TrackingStatus trackingStatus = authorizedTrackingStatus != null
+                    ? authorizedTrackingStatus
+                    : trackingService.getTrackingStatus(orderNumber, forceRefresh);
             
             if (trackingStatus != null) {
                 log.info("Successfully retrieved tracking status for order: {} with status: {}", 
@@ -79,6 +95,41 @@ public class TrackingController {
         }
     }
     
+    /**
+     * Tracking de varias órdenes en una sola llamada (dashboard del cliente).
+     * Las órdenes inexistentes o que no pertenecen al usuario se omiten del resultado.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getTrackingStatuses(@RequestBody List<String> orderNumbers,
+                                                 @RequestAttribute(TrackingAuthFilter.USER_ID_ATTRIBUTE) UUID userId,
+                                                 @RequestAttribute(TrackingAuthFilter.ROLES_ATTRIBUTE) List<String> roles) {
+        if (orderNumbers == null || orderNumbers.isEmpty()) {
+            return ResponseEntity.ok(Map.of());
+        }
+        if (orderNumbers.size() > batchMaxSize) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Bad Request");
+            errorResponse.put("message", "A maximum of " + batchMaxSize + " order numbers can be requested at once");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        log.info("Retrieving tracking status for {} orders", orderNumbers.size());
+        
+        try {
+            // ROOT y ADMIN ven todas; USER solo las suyas (el filtro se aplica antes de cualquier llamada a ms-order)
+            boolean fullAccess = roles.contains("ROOT") || roles.contains("ADMIN");
+            return ResponseEntity.ok(trackingService.getTrackingStatuses(orderNumbers, fullAccess ? null : userId));
+            
+        } catch (Exception e) {
+            log.error("Error retrieving batch tracking status", e);
+            
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Internal Server Error");
+            errorResponse.put("message", "Failed to retrieve tracking status: " + e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
     // Endpoint de prueba para verificar conexión con Redis
     @GetMapping("/test/redis")
     public ResponseEntity<Map<String, String>> testRedis() {
@@ -0,0 +1,110 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.application;
+
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.TrackingStatus;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis.TrackingStatusRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrackingReconciliationSweeperTest {
+
+    private static final int KEYS = 1_200;
+    private static final int MAX_ENTRIES_PER_RUN = 500;
+    /** Claves que devuelve cada paso de SCAN en el keyspace simulado (el COUNT de Redis es orientativo) */
+    private static final int KEYS_PER_SCAN_STEP = 100;
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, TrackingStatus> redisTemplate = mock(RedisTemplate.class);
+    private final TrackingService trackingService = mock(TrackingService.class);
+    private final List<String> keyspace = IntStream.range(0, KEYS)
+            .mapToObj(i -> TrackingStatusRepository.key(String.format("ORD-%013d", i)))
+            .toList();
+    private final Map<String, Integer> reconciled = new HashMap<>();
+    private boolean redisDown;
+
+    private TrackingReconciliationSweeper sweeper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // SCAN simulado: el cursor es la posición en el keyspace y "0" marca el final del recorrido
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            if (redisDown) {
+                throw new IllegalStateException("Redis unavailable");
+            }
+            int from = Integer.parseInt(invocation.getArgument(4));
+            int to = Math.min(from + KEYS_PER_SCAN_STEP, keyspace.size());
+            String next = to == keyspace.size() ? "0" : Integer.toString(to);
+            return List.of(next, new ArrayList<>(keyspace.subList(from, to)));
+        });
+        when(trackingService.reconcile(anyString())).thenAnswer(invocation -> {
+            reconciled.merge(invocation.getArgument(0), 1, Integer::sum);
+            return false;
+        });
+
+        TrackingStatusRepository repository = new TrackingStatusRepository(redisTemplate, new SimpleMeterRegistry());
+        sweeper = new TrackingReconciliationSweeper(repository, trackingService);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "maxEntriesPerRun", MAX_ENTRIES_PER_RUN);
+    }
+
+    @Test
+    void shouldReachEveryKeyWhenThereAreMoreKeysThanThePerRunLimit() {
+        // When: 1200 claves con un límite de 500 por ejecución
+        sweeper.sweep();
+        sweeper.sweep();
+        sweeper.sweep();
+
+        // Then: cada clave se revisa exactamente una vez y ninguna ejecución pasa del límite
+        assertEquals(KEYS, reconciled.size());
+        assertTrue(reconciled.values().stream().allMatch(count -> count == 1));
+        verify(trackingService, times(KEYS)).reconcile(anyString());
+    }
+
+    @Test
+    void shouldStartANewPassOnceTheScanCompletes() {
+        // Given: un recorrido completo
+        sweeper.sweep();
+        sweeper.sweep();
+        sweeper.sweep();
+
+        // When
+        sweeper.sweep();
+
+        // Then: la cuarta ejecución vuelve al principio del keyspace
+        assertEquals(2, reconciled.get("ORD-0000000000000"));
+        assertEquals(1, reconciled.get(String.format("ORD-%013d", MAX_ENTRIES_PER_RUN)));
+    }
+
+    @Test
+    void shouldResumeFromTheSameCursorAfterAFailedRun() {
+        // Given: la primera ejecución avanza y la segunda falla contra Redis
+        sweeper.sweep();
+        redisDown = true;
+        sweeper.sweep();
+        redisDown = false;
+
+        // When
+        sweeper.sweep();
+        sweeper.sweep();
+
+        // Then: el fallo no reinicia el recorrido ni se salta claves
+        assertEquals(KEYS, reconciled.size());
+        assertTrue(reconciled.values().stream().allMatch(count -> count == 1));
+    }
+}
@@ -6,17 +6,23 @@ import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrast
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.OrderServiceFeignClient;
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.CustomerServiceClient;
 import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.clients.CustomerServiceFeignClient;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis.TrackingStatusRepository;
+import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,10 +32,7 @@ import static org.mockito.Mockito.*;
 class TrackingServiceTest {
 
     @Mock
-    private RedisTemplate<String, TrackingStatus> redisTemplate;
-
-    @Mock
-    private ValueOperations<String, TrackingStatus> valueOperations;
+    private TrackingStatusRepository trackingStatusRepository;
 
     @Mock
     private OrderServiceClient orderServiceClient;
@@ -44,12 +47,11 @@ class TrackingServiceTest {
     private OrderServiceFeignClient.OrderDto sampleOrderDto;
     private CustomerServiceFeignClient.CustomerDto sampleCustomerDto;
     private final String ORDER_NUMBER = "ORD-2025-0001";
-    private final String CACHE_KEY = "tracking:order:" + ORDER_NUMBER;
 
     @BeforeEach
     void setUp() {
-        // Setup mocks
-        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Most tests below cover the VERIFY consistency mode; write-through tests switch it explicitly
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.VERIFY);
 
         // Create sample data
         UUID orderId = UUID.randomUUID();
@@ -88,8 +90,7 @@ class TrackingServiceTest {
     @Test
     void testGetTrackingStatus_CacheHitConsistent_ReturnsCachedData() {
         // Arrange
-        when(redisTemplate.hasKey(CACHE_KEY)).thenReturn(true);
-        when(valueOperations.get(CACHE_KEY)).thenReturn(sampleTrackingStatus);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
         
         // Make order service return same status as cached data
         OrderServiceFeignClient.OrderDto consistentOrderDto = new OrderServiceFeignClient.OrderDto(
@@ -114,17 +115,14 @@ class TrackingServiceTest {
         // Verify that the order service was called to check consistency
         verify(orderServiceClient, times(1)).getOrderByOrderNumber(ORDER_NUMBER);
         
-        // Since the data was consistent, no additional cache update should be performed
-        // (updateTrackingStatus method calls hasKey internally)
-        verify(redisTemplate, atLeast(1)).hasKey(CACHE_KEY);
-        verify(valueOperations, times(1)).get(CACHE_KEY);
+        // The cache is read with a single GET (no EXISTS round trip)
+        verify(trackingStatusRepository, times(1)).find(ORDER_NUMBER);
     }
 
     @Test
     void testGetTrackingStatus_CacheHitInconsistent_UpdatesCacheAndReturnsNewData() {
         // Arrange
-        when(redisTemplate.hasKey(anyString())).thenReturn(true);
-        when(valueOperations.get(CACHE_KEY)).thenReturn(sampleTrackingStatus);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
         when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(sampleOrderDto);
         when(customerServiceClient.getCustomerById(any())).thenReturn(sampleCustomerDto);
 
@@ -137,15 +135,13 @@ class TrackingServiceTest {
         assertEquals(ORDER_NUMBER, result.getOrderNumber());
         
         // Verify cache was updated with new data
-        verify(redisTemplate, atLeast(1)).hasKey(anyString());
-        verify(valueOperations, times(1)).get(CACHE_KEY);
-        verify(valueOperations, times(1)).set(eq(CACHE_KEY), any(TrackingStatus.class), anyLong(), any());
+        verify(trackingStatusRepository, times(1)).find(ORDER_NUMBER);
+        verify(trackingStatusRepository, times(1)).save(any(TrackingStatus.class));
     }
 
     @Test
     void testGetTrackingStatus_ForceRefresh_SkipsCacheAndReturnsLatestData() {
         // Arrange
-        when(redisTemplate.hasKey(anyString())).thenReturn(true); // Allow hasKey calls from updateTrackingStatus
         when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(sampleOrderDto);
         when(customerServiceClient.getCustomerById(any())).thenReturn(sampleCustomerDto);
 
@@ -158,14 +154,13 @@ class TrackingServiceTest {
         assertEquals(ORDER_NUMBER, result.getOrderNumber());
         
         // Verify cache lookup for getting was skipped but data was saved to cache
-        verify(valueOperations, never()).get(CACHE_KEY);
-        verify(valueOperations, times(1)).set(eq(CACHE_KEY), any(TrackingStatus.class), anyLong(), any());
+        verify(trackingStatusRepository, never()).find(ORDER_NUMBER);
+        verify(trackingStatusRepository, times(1)).save(any(TrackingStatus.class));
     }
 
     @Test
     void testGetTrackingStatus_OrderNotFound_ReturnsNull() {
         // Arrange
-        when(redisTemplate.hasKey(CACHE_KEY)).thenReturn(false);
         when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(null);
 
         // Act
@@ -175,13 +170,12 @@ class TrackingServiceTest {
         assertNull(result);
         
         // Verify no cache operations were performed
-        verify(valueOperations, never()).set(any(), any(), anyLong(), any());
+        verify(trackingStatusRepository, never()).save(any());
     }
 
     @Test
     void testGetTrackingStatus_CacheMiss_LoadsFromOrderServiceAndCaches() {
         // Arrange
-        when(redisTemplate.hasKey(CACHE_KEY)).thenReturn(false);
         when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(sampleOrderDto);
         when(customerServiceClient.getCustomerById(any())).thenReturn(sampleCustomerDto);
 
@@ -194,14 +188,13 @@ class TrackingServiceTest {
         assertEquals(ORDER_NUMBER, result.getOrderNumber());
         
         // Verify data was cached
-        verify(valueOperations, times(1)).set(eq(CACHE_KEY), any(TrackingStatus.class), anyLong(), any());
+        verify(trackingStatusRepository, times(1)).save(any(TrackingStatus.class));
     }
 
     @Test
     void testGetTrackingStatus_ObsoleteCacheData_RemovesObsoleteData() {
         // Arrange
-        when(redisTemplate.hasKey(CACHE_KEY)).thenReturn(true);
-        when(valueOperations.get(CACHE_KEY)).thenReturn(sampleTrackingStatus);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
         when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(null); // Order no longer exists
 
         // Act
@@ -211,7 +204,7 @@ class TrackingServiceTest {
         assertNull(result);
         
         // Verify obsolete cache data was removed
-        verify(redisTemplate, times(1)).delete(CACHE_KEY);
+        verify(trackingStatusRepository, times(1)).delete(ORDER_NUMBER);
     }
 
     @Test
@@ -220,6 +213,211 @@ class TrackingServiceTest {
         trackingService.updateTrackingStatus(sampleTrackingStatus);
 
         // Assert
-        verify(valueOperations, times(1)).set(eq(CACHE_KEY), eq(sampleTrackingStatus), eq(1L), any());
+        verify(trackingStatusRepository, times(1)).save(sampleTrackingStatus);
+    }
+
+    @Test
+    void testUpdateTrackingStatus_OlderThanStored_IsIgnored() {
+        // Arrange: el script de Redis detecta que la entrada guardada es más reciente
+        when(trackingStatusRepository.save(sampleTrackingStatus)).thenReturn(TrackingStatusRepository.SaveResult.STALE);
+
+        // Act / Assert
+        assertFalse(trackingService.updateTrackingStatus(sampleTrackingStatus));
+    }
+
+    @Test
+    void testGetTrackingStatus_WriteThroughCacheHit_SkipsOrderService() {
+        // Arrange
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.WRITE_THROUGH);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
+
+        // Act
+        TrackingStatus result = trackingService.getTrackingStatus(ORDER_NUMBER, false);
+
+        // Assert
+        assertSame(sampleTrackingStatus, result);
+        verifyNoInteractions(orderServiceClient, customerServiceClient);
+    }
+
+    @Test
+    void testGetTrackingStatus_WriteThroughCacheMiss_LoadsFromOrderServiceAndCaches() {
+        // Arrange
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.WRITE_THROUGH);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(null);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(sampleOrderDto);
+        when(customerServiceClient.getCustomerById(any())).thenReturn(sampleCustomerDto);
+
+        // Act
+        TrackingStatus result = trackingService.getTrackingStatus(ORDER_NUMBER, false);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(OrderStatusEnum.SHIPPED, result.getStatus());
+        verify(trackingStatusRepository, times(1)).save(any(TrackingStatus.class));
+    }
+
+    @Test
+    void testReconcile_StaleEntry_UpdatesCache() {
+        // Arrange
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(sampleOrderDto);
+        when(customerServiceClient.getCustomerById(any())).thenReturn(sampleCustomerDto);
+
+        // Act
+        boolean changed = trackingService.reconcile(ORDER_NUMBER);
+
+        // Assert
+        assertTrue(changed);
+        verify(trackingStatusRepository, times(1)).save(argThat(status -> status.getStatus() == OrderStatusEnum.SHIPPED));
+    }
+
+    @Test
+    void testReconcile_OrderNoLongerExists_RemovesEntry() {
+        // Arrange
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenReturn(null);
+
+        // Act
+        boolean changed = trackingService.reconcile(ORDER_NUMBER);
+
+        // Assert
+        assertTrue(changed);
+        verify(trackingStatusRepository, times(1)).delete(ORDER_NUMBER);
+    }
+
+    @Test
+    void testReconcile_OrderServiceUnavailable_KeepsEntry() {
+        // Arrange: timeout/5xx de ms-order (OrderServiceClient solo devuelve null con un 404)
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenThrow(orderServiceUnavailable());
+
+        // Act / Assert
+        assertThrows(RuntimeException.class, () -> trackingService.reconcile(ORDER_NUMBER));
+        verify(trackingStatusRepository, never()).delete(anyString());
+        verify(trackingStatusRepository, never()).save(any());
+    }
+
+    @Test
+    void testSweep_OrderServiceUnavailable_DeletesNothing() {
+        // Arrange
+        TrackingReconciliationSweeper sweeper = new TrackingReconciliationSweeper(trackingStatusRepository, trackingService);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "maxEntriesPerRun", 500);
+        when(trackingStatusRepository.scanOrderNumbers("0", 500)).thenReturn(
+                new TrackingStatusRepository.ScanPage(List.of(ORDER_NUMBER, "ORD-2025-0002"), "0"));
+        when(trackingStatusRepository.find(anyString())).thenReturn(sampleTrackingStatus);
+        when(orderServiceClient.getOrderByOrderNumber(anyString())).thenThrow(orderServiceUnavailable());
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(orderServiceClient, times(2)).getOrderByOrderNumber(anyString());
+        verify(trackingStatusRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void testGetTrackingStatus_VerifyOrderServiceUnavailable_ReturnsCachedDataWithoutDeleting() {
+        // Arrange
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(sampleTrackingStatus);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenThrow(orderServiceUnavailable());
+
+        // Act
+        TrackingStatus result = trackingService.getTrackingStatus(ORDER_NUMBER, false);
+
+        // Assert
+        assertSame(sampleTrackingStatus, result);
+        verify(trackingStatusRepository, never()).delete(anyString());
+    }
+
+    @Test
+    void testGetTrackingStatus_WriteThroughMissOrderServiceUnavailable_PropagatesError() {
+        // Arrange: sin caché no se puede distinguir "no existe" de "no disponible", no se responde 404
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.WRITE_THROUGH);
+        when(trackingStatusRepository.find(ORDER_NUMBER)).thenReturn(null);
+        when(orderServiceClient.getOrderByOrderNumber(ORDER_NUMBER)).thenThrow(orderServiceUnavailable());
+
+        // Act / Assert
+        assertThrows(RuntimeException.class, () -> trackingService.getTrackingStatus(ORDER_NUMBER, false));
+        verify(trackingStatusRepository, never()).delete(anyString());
+        verify(trackingStatusRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetTrackingStatuses_WriteThrough_UsesSingleMgetAndOneBulkCallForMisses() {
+        // Arrange
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.WRITE_THROUGH);
+        String cachedOrderNumber = "ORD-2025-0002";
+        when(trackingStatusRepository.findAll(anyCollection())).thenReturn(Map.of(cachedOrderNumber, sampleTrackingStatus));
+        when(orderServiceClient.getTracking(List.of(ORDER_NUMBER), null)).thenReturn(List.of(trackingDto(ORDER_NUMBER, UUID.randomUUID())));
+        when(trackingStatusRepository.save(any())).thenReturn(TrackingStatusRepository.SaveResult.CREATED);
+
+        // Act
+        Map<String, TrackingStatus> result = trackingService.getTrackingStatuses(
+                List.of(cachedOrderNumber, ORDER_NUMBER, cachedOrderNumber), null);
+
+        // Assert
+        assertEquals(List.of(cachedOrderNumber, ORDER_NUMBER), List.copyOf(result.keySet()));
+        assertSame(sampleTrackingStatus, result.get(cachedOrderNumber));
+        assertEquals(OrderStatusEnum.SHIPPED, result.get(ORDER_NUMBER).getStatus());
+        verify(trackingStatusRepository, times(1)).findAll(anyCollection());
+        verify(trackingStatusRepository, times(1)).save(any());
+        verify(trackingStatusRepository, never()).find(anyString());
+        verify(orderServiceClient, never()).getOrderByOrderNumber(anyString());
+        verifyNoInteractions(customerServiceClient);
+    }
+
+    @Test
+    void testGetTrackingStatuses_ForeignOrdersOfUser_NoPerOrderRemoteCalls() {
+        // Arrange: 200 órdenes ajenas sin caché y una ajena en caché
+        ReflectionTestUtils.setField(trackingService, "consistencyMode", TrackingService.ConsistencyMode.WRITE_THROUGH);
+        UUID caller = UUID.randomUUID();
+        List<String> foreign = IntStream.range(0, 200).mapToObj(i -> "ORD-FOREIGN-" + i).toList();
+        when(trackingStatusRepository.findAll(anyCollection())).thenReturn(Map.of(foreign.get(0), sampleTrackingStatus));
+        when(orderServiceClient.getTracking(anyCollection(), eq(caller))).thenReturn(List.of());
+
+        // Act
+        Map<String, TrackingStatus> result = trackingService.getTrackingStatuses(foreign, caller);
+
+        // Assert: una sola llamada filtrada por el usuario y nada de las ajenas en la respuesta
+        assertTrue(result.isEmpty());
+        verify(orderServiceClient, times(1)).getTracking(anyCollection(), eq(caller));
+        verify(orderServiceClient, never()).getOrderByOrderNumber(anyString());
+        verifyNoInteractions(customerServiceClient);
+        verify(trackingStatusRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetTrackingStatuses_Verify_ChecksWholeBatchInOneCall() {
+        // Arrange: la entrada cacheada está desactualizada respecto a ms-order
+        String otherOrderNumber = "ORD-2025-0002";
+        UUID owner = sampleTrackingStatus.getUserId();
+        when(trackingStatusRepository.findAll(anyCollection())).thenReturn(Map.of(ORDER_NUMBER, sampleTrackingStatus));
+        when(orderServiceClient.getTracking(List.of(ORDER_NUMBER, otherOrderNumber), owner))
+                .thenReturn(List.of(trackingDto(ORDER_NUMBER, owner)));
+        when(trackingStatusRepository.save(any())).thenReturn(TrackingStatusRepository.SaveResult.UPDATED);
+
+        // Act
+        Map<String, TrackingStatus> result = trackingService.getTrackingStatuses(List.of(ORDER_NUMBER, otherOrderNumber), owner);
+
+        // Assert
+        assertEquals(List.of(ORDER_NUMBER), List.copyOf(result.keySet()));
+        assertEquals(OrderStatusEnum.SHIPPED, result.get(ORDER_NUMBER).getStatus());
+        verify(trackingStatusRepository).save(result.get(ORDER_NUMBER));
+        verify(orderServiceClient, never()).getOrderByOrderNumber(anyString());
+        verifyNoInteractions(customerServiceClient);
+    }
+
+    private static OrderServiceFeignClient.OrderTrackingDto trackingDto(String orderNumber, UUID userId) {
+        return new OrderServiceFeignClient.OrderTrackingDto(UUID.randomUUID(), orderNumber, userId, "SHIPPED",
+                LocalDateTime.of(2026, 1, 1, 10, 0));
+    }
+
+    // Lo que lanza OrderServiceClient ante cualquier FeignException que no sea 404
+    private static RuntimeException orderServiceUnavailable() {
+        FeignException serviceUnavailable = new FeignException.ServiceUnavailable("Service Unavailable",
+                Request.create(Request.HttpMethod.GET, "/api/orders/by-order-number/ORD-2025-0001", Map.of(), null, StandardCharsets.UTF_8, null),
+                null, Map.of());
+        return new RuntimeException("Error communicating with order service", serviceUnavailable);
     }
 }
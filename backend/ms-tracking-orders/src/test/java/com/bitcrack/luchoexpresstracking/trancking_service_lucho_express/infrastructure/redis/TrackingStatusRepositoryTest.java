@@ -0,0 +1,71 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.redis;
+
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.OrderStatusEnum;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.TrackingStatus;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrackingStatusRepositoryTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, TrackingStatus> redisTemplate = mock(RedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TrackingStatusRepository repository = new TrackingStatusRepository(redisTemplate, meterRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldTimeConditionalSaveAsEvalCompareAndSet() {
+        // Given
+        RedisSerializer<TrackingStatus> serializer = mock(RedisSerializer.class);
+        when(serializer.serialize(any())).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(Object[].class))).thenReturn(1L);
+        TrackingStatus status = new TrackingStatus(UUID.randomUUID(), "ORD-0000000000001", UUID.randomUUID(),
+                OrderStatusEnum.values()[0], LocalDateTime.of(2026, 1, 1, 10, 0));
+
+        // When
+        TrackingStatusRepository.SaveResult result = repository.save(status);
+
+        // Then: el script Lua no es un SET y no debe mezclarse con esa latencia
+        assertEquals(TrackingStatusRepository.SaveResult.UPDATED, result);
+        Timer timer = meterRegistry.find("tracking.redis.command")
+                .tag("command", "EVAL")
+                .tag("operation", "compare-and-set")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(meterRegistry.find("tracking.redis.command").tag("command", "SET").timer());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldTagPlainReadsWithCommandAndOperation() {
+        // Given
+        ValueOperations<String, TrackingStatus> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // When
+        TrackingStatus found = repository.find("ORD-0000000000001");
+
+        // Then
+        assertNull(found);
+        verify(valueOperations).get(TrackingStatusRepository.key("ORD-0000000000001"));
+        Timer timer = meterRegistry.find("tracking.redis.command").tag("command", "GET").tag("operation", "get").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,100 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El vector SECRET/USER_ID/.../SIGNATURE es el mismo en InternalIdentityHeadersTest (api-gateway) y en el
+ * InternalIdentityVerifierTest de ms-order, ms-products y ms-tracking-orders: si se cambia, en todos.
+ */
+class InternalIdentityVerifierTest {
+
+    static final String SECRET = "lucho-express-internal-auth-test-vector";
+    static final String USER_ID = "0190a6f4-3c2b-7d8e-9f01-23456789abcd";
+    static final String USERNAME = "ana.lopez";
+    static final String ROLES = "USER";
+    static final long ISSUED_AT = 1767225600000L;
+    static final String SIGNATURE = "j-7vXtRsBAKBmSdGqOhcFaQJXiG7PrW8WhrQMBSL9wU";
+    static final String MULTI_ROLES = "ADMIN,USER";
+    static final String MULTI_ROLES_SIGNATURE = "qtEs2y0Z5Asq6eBYakqXwytgn0rWo2KwAfbySemhR3k";
+
+    private static final Duration MAX_AGE = Duration.ofSeconds(30);
+
+    @Test
+    void shouldAcceptSharedTestVector() {
+        // Given
+        InternalIdentityVerifier verifier = verifierAt(ISSUED_AT);
+
+        // When
+        Optional<InternalIdentityVerifier.InternalIdentity> identity = verifier.verify(signedRequest());
+        Optional<InternalIdentityVerifier.InternalIdentity> admin = verifier.verify(
+                signedRequest(USER_ID, USERNAME, MULTI_ROLES, ISSUED_AT, MULTI_ROLES_SIGNATURE));
+
+        // Then
+        assertEquals(Optional.of(new InternalIdentityVerifier.InternalIdentity(USER_ID, USERNAME, List.of("USER"))), identity);
+        assertEquals(List.of("ADMIN", "USER"), admin.orElseThrow().roles());
+        assertEquals(USER_ID + "\n" + USERNAME + "\n" + ROLES + "\n" + ISSUED_AT,
+                InternalIdentityVerifier.canonicalPayload(USER_ID, USERNAME, ROLES, ISSUED_AT));
+    }
+
+    @Test
+    void shouldRejectTamperedHeaders() {
+        InternalIdentityVerifier verifier = verifierAt(ISSUED_AT);
+
+        // Escalada de rol, otro usuario, firma de otro payload o firma corrupta
+        assertTrue(verifier.verify(signedRequest(USER_ID, USERNAME, "ADMIN", ISSUED_AT, SIGNATURE)).isEmpty());
+        assertTrue(verifier.verify(signedRequest("0190a6f4-3c2b-7d8e-9f01-000000000000", USERNAME, ROLES, ISSUED_AT, SIGNATURE)).isEmpty());
+        assertTrue(verifier.verify(signedRequest(USER_ID, USERNAME, ROLES, ISSUED_AT, MULTI_ROLES_SIGNATURE)).isEmpty());
+        assertTrue(verifier.verify(signedRequest(USER_ID, USERNAME, ROLES, ISSUED_AT, "not base64!")).isEmpty());
+        assertTrue(verifier.verify(signedRequest(USER_ID, USERNAME, ROLES, ISSUED_AT + 1, SIGNATURE)).isEmpty());
+    }
+
+    @Test
+    void shouldRejectOtherSecret() {
+        InternalIdentityVerifier verifier = new InternalIdentityVerifier(true, "another-secret", MAX_AGE, () -> ISSUED_AT);
+
+        assertTrue(verifier.verify(signedRequest()).isEmpty());
+    }
+
+    @Test
+    void shouldRejectExpiredAndFutureIssuedAt() {
+        assertTrue(verifierAt(ISSUED_AT + MAX_AGE.toMillis()).verify(signedRequest()).isPresent());
+        assertTrue(verifierAt(ISSUED_AT + MAX_AGE.toMillis() + 1).verify(signedRequest()).isEmpty());
+        assertTrue(verifierAt(ISSUED_AT - MAX_AGE.toMillis() - 1).verify(signedRequest()).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreHeadersWhenTrustIsDisabledOrIncomplete() {
+        InternalIdentityVerifier disabled = new InternalIdentityVerifier(false, SECRET, MAX_AGE, () -> ISSUED_AT);
+        MockHttpServletRequest withoutSignature = signedRequest();
+        withoutSignature.removeHeader(InternalIdentityVerifier.SIGNATURE_HEADER);
+
+        assertTrue(disabled.verify(signedRequest()).isEmpty());
+        assertTrue(verifierAt(ISSUED_AT).verify(withoutSignature).isEmpty());
+        assertThrows(IllegalStateException.class, () -> new InternalIdentityVerifier(true, "", MAX_AGE, () -> ISSUED_AT));
+    }
+
+    static InternalIdentityVerifier verifierAt(long now) {
+        return new InternalIdentityVerifier(true, SECRET, MAX_AGE, () -> now);
+    }
+
+    static MockHttpServletRequest signedRequest() {
+        return signedRequest(USER_ID, USERNAME, ROLES, ISSUED_AT, SIGNATURE);
+    }
+
+    static MockHttpServletRequest signedRequest(String userId, String username, String roles, long issuedAt, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(InternalIdentityVerifier.USER_ID_HEADER, userId);
+        request.addHeader(InternalIdentityVerifier.USERNAME_HEADER, username);
+        request.addHeader(InternalIdentityVerifier.ROLES_HEADER, roles);
+        request.addHeader(InternalIdentityVerifier.ISSUED_AT_HEADER, Long.toString(issuedAt));
+        request.addHeader(InternalIdentityVerifier.SIGNATURE_HEADER, signature);
+        return request;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyHolderTest {
+
+    private static final String SECRET = "myVerySecureSecretKeyForJWT1234567890123456789012345678901234567890123456789012345678901234567890";
+    private static final String NEW_SECRET = "anotherVerySecureSecretKeyForJWT123456789012345678901234567890123456789012345678901234567890";
+
+    @Test
+    void shouldParseTokenSignedWithCurrentSecret() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtKeyHolder holder = new JwtKeyHolder(SECRET, "", Duration.ofHours(1), meterRegistry);
+
+        String token = sign(SECRET, "john");
+
+        assertEquals("john", holder.parseClaims(token).getSubject());
+        assertEquals(1, meterRegistry.get("jwt.parse").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void shouldAcceptPreviousSecretDuringGracePeriod() {
+        JwtKeyHolder holder = new JwtKeyHolder(SECRET, "", Duration.ofHours(1), new SimpleMeterRegistry());
+        String oldToken = sign(SECRET, "john");
+
+        holder.rotate(NEW_SECRET);
+
+        assertEquals("john", holder.parseClaims(oldToken).getSubject());
+        assertEquals("jane", holder.parseClaims(sign(NEW_SECRET, "jane")).getSubject());
+    }
+
+    @Test
+    void shouldRejectPreviousSecretWithoutGracePeriod() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtKeyHolder holder = new JwtKeyHolder(SECRET, "", Duration.ZERO, meterRegistry);
+        String oldToken = sign(SECRET, "john");
+
+        holder.rotate(NEW_SECRET);
+
+        assertThrows(SecurityException.class, () -> holder.parseClaims(oldToken));
+        assertEquals(1, meterRegistry.get("jwt.parse").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void shouldNotifyListenersOnlyWhenSecretChanges() {
+        JwtKeyHolder holder = new JwtKeyHolder(SECRET, "", Duration.ofHours(1), new SimpleMeterRegistry());
+        int[] rotations = {0};
+        holder.onRotation(() -> rotations[0]++);
+
+        holder.rotate(SECRET);
+        holder.rotate(NEW_SECRET);
+
+        assertEquals(1, rotations[0]);
+    }
+
+    private static String sign(String secret, String subject) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
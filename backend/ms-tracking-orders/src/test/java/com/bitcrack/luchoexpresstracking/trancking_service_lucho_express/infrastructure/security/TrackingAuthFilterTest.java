@@ -0,0 +1,78 @@
+package com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security;
+
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.application.TrackingService;
+import com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.domain.TrackingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.bitcrack.luchoexpresstracking.trancking_service_lucho_express.infrastructure.security.InternalIdentityVerifierTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrackingAuthFilterTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final TrackingService trackingService = mock(TrackingService.class);
+    private final TrackingAuthFilter filter = new TrackingAuthFilter(jwtUtil, verifierAt(ISSUED_AT), trackingService);
+
+    @Test
+    void shouldResolveBatchIdentityFromSignedGatewayHeaders() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("POST", "/api/tracking/batch", signedRequest());
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then: sin tocar el JWT
+        assertSame(request, chain.getRequest());
+        assertEquals(UUID.fromString(USER_ID), request.getAttribute(TrackingAuthFilter.USER_ID_ATTRIBUTE));
+        assertEquals(List.of("USER"), request.getAttribute(TrackingAuthFilter.ROLES_ATTRIBUTE));
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    void shouldCheckOwnershipWithGatewayIdentity() throws Exception {
+        // Given
+        TrackingStatus trackingStatus = new TrackingStatus();
+        trackingStatus.setUserId(UUID.fromString(USER_ID));
+        when(trackingService.getTrackingStatus("ORD-1", false)).thenReturn(trackingStatus);
+        MockHttpServletRequest request = request("GET", "/api/tracking/ORD-1", signedRequest());
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertSame(request, chain.getRequest());
+        assertSame(trackingStatus, request.getAttribute(TrackingAuthFilter.TRACKING_STATUS_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldRejectTamperedGatewayHeaders() throws Exception {
+        // Given: rol escalado a ADMIN con la firma de USER y sin JWT
+        MockHttpServletRequest request = request("POST", "/api/tracking/batch",
+                signedRequest(USER_ID, USERNAME, "ADMIN", ISSUED_AT, SIGNATURE));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(403, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(request.getAttribute(TrackingAuthFilter.USER_ID_ATTRIBUTE));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, MockHttpServletRequest headers) {
+        headers.setMethod(method);
+        headers.setRequestURI(uri);
+        return headers;
+    }
+}
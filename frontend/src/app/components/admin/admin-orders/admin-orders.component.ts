@@ -14,7 +14,7 @@ import { TooltipModule } from 'primeng/tooltip';
 import { TextareaModule } from 'primeng/textarea';
 import { MessageService, ConfirmationService } from 'primeng/api';
 
-import { OrderService, OrderResponse, UpdateOrderRequest, OrderFilters } from '../../../services/order.service';
+import { OrderService, OrderSummary, OrderProductResponse, UpdateOrderRequest, OrderFilters } from '../../../services/order.service';
 import { CustomerService, CustomerResponse } from '../../../services/customer-admin.service';
 import { AuthService } from '../../../services/auth.service';
 
@@ -51,10 +51,11 @@ interface CustomerOption {
   styleUrl: './admin-orders.component.scss'
 })
 export class AdminOrdersComponent implements OnInit {
-  orders: OrderResponse[] = [];
-  filteredOrders: OrderResponse[] = [];
+  orders: OrderSummary[] = [];
+  filteredOrders: OrderSummary[] = [];
   customers: CustomerResponse[] = [];
   loading = false;
+  nextCursor: string | null = null;
   
   // Filtros
   filters: OrderFilters = {};
@@ -76,7 +77,9 @@ export class AdminOrdersComponent implements OnInit {
   
   // Forms
   editOrderForm: UpdateOrderRequest = {};
-  selectedOrder: OrderResponse | null = null;
+  selectedOrder: OrderSummary | null = null;
+  selectedOrderProducts: OrderProductResponse[] = [];
+  loadingProducts = false;
   deliveryDateError: string | null = null;
   
   // Estados disponibles para actualización
@@ -124,10 +127,23 @@ export class AdminOrdersComponent implements OnInit {
   }
 
   loadOrders() {
+    this.orders = [];
+    this.nextCursor = null;
+    this.fetchOrdersPage();
+  }
+
+  loadMoreOrders() {
+    if (this.nextCursor) {
+      this.fetchOrdersPage();
+    }
+  }
+
+  private fetchOrdersPage() {
     this.loading = true;
-    this.orderService.getAllOrders().subscribe({
-      next: (orders) => {
-        this.orders = orders;
+    this.orderService.getAllOrders(this.nextCursor).subscribe({
+      next: (page) => {
+        this.orders = [...this.orders, ...page.items];
+        this.nextCursor = page.nextCursor;
         this.applyFilters();
         this.loading = false;
       },
@@ -160,7 +176,7 @@ export class AdminOrdersComponent implements OnInit {
     this.filteredOrders = [...this.orders];
   }
 
-  openEditDialog(order: OrderResponse) {
+  openEditDialog(order: OrderSummary) {
     this.selectedOrder = order;
     this.editOrderForm = {
       status: order.status,
@@ -171,9 +187,23 @@ export class AdminOrdersComponent implements OnInit {
     this.displayEditDialog = true;
   }
 
-  openViewDialog(order: OrderResponse) {
+  openViewDialog(order: OrderSummary) {
     this.selectedOrder = order;
+    this.selectedOrderProducts = [];
     this.displayViewDialog = true;
+
+    // El listado trae solo resúmenes; los productos se cargan al abrir el detalle
+    this.loadingProducts = true;
+    this.orderService.getOrderById(order.id).subscribe({
+      next: (fullOrder) => {
+        this.selectedOrderProducts = fullOrder.products;
+        this.loadingProducts = false;
+      },
+      error: (error) => {
+        console.error('Error loading order details:', error);
+        this.loadingProducts = false;
+      }
+    });
   }
 
   updateOrder() {
@@ -242,7 +272,7 @@ export class AdminOrdersComponent implements OnInit {
     }
   }
 
-  confirmCancelOrder(order: OrderResponse) {
+  confirmCancelOrder(order: OrderSummary) {
     if (order.status === 'CANCELLED') {
       this.messageService.add({
         severity: 'warn',
@@ -264,7 +294,7 @@ export class AdminOrdersComponent implements OnInit {
     });
   }
 
-  cancelOrder(order: OrderResponse) {
+  cancelOrder(order: OrderSummary) {
     this.orderService.cancelOrder(order.id).subscribe({
       next: () => {
         this.messageService.add({
@@ -325,11 +355,11 @@ export class AdminOrdersComponent implements OnInit {
     return customer ? customer.email : '';
   }
 
-  canCancelOrder(order: OrderResponse): boolean {
+  canCancelOrder(order: OrderSummary): boolean {
     return order.status !== 'CANCELLED' && order.status !== 'DELIVERED';
   }
 
-  canEditOrder(order: OrderResponse): boolean {
+  canEditOrder(order: OrderSummary): boolean {
     return order.status !== 'CANCELLED' && order.status !== 'DELIVERED';
   }
 
@@ -340,10 +370,6 @@ export class AdminOrdersComponent implements OnInit {
     }).format(amount);
   }
 
-  getProductsCount(order: OrderResponse): number {
-    return order.products.reduce((total, product) => total + product.quantity, 0);
-  }
-
   getPendingOrdersCount(): number {
     return this.filteredOrders.filter(order => order.status === 'PENDING').length;
   }
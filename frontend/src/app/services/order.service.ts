@@ -38,6 +38,14 @@ export interface OrderResponse {
   updatedAt: string;
 }
 
+// Resumen de orden (sin productos) usado por el listado de administración
+export type OrderSummary = Omit<OrderResponse, 'products'>;
+
+export interface OrderPage {
+  items: OrderSummary[];
+  nextCursor: string | null;
+}
+
 export interface UpdateOrderRequest {
   status?: string;
   deliveryAddress?: string;
@@ -99,11 +107,16 @@ export class OrderService {
   }
 
   /**
-   * Get all orders (admin only)
+   * Get a page of order summaries (admin only). Pass the previous nextCursor to get the following page
    */
-  getAllOrders(): Observable<OrderResponse[]> {
-    return this.http.get<OrderResponse[]>(this.baseUrl, {
-      headers: this.getHeaders()
+  getAllOrders(cursor?: string | null, size: number = 50): Observable<OrderPage> {
+    const params: Record<string, string> = { size: String(size) };
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    return this.http.get<OrderPage>(this.baseUrl, {
+      headers: this.getHeaders(),
+      params
     });
   }
 
@@ -128,7 +141,7 @@ export class OrderService {
   /**
    * Filter orders by criteria
    */
-  filterOrders(orders: OrderResponse[], filters: OrderFilters): OrderResponse[] {
+  filterOrders<T extends OrderSummary>(orders: T[], filters: OrderFilters): T[] {
     return orders.filter(order => {
       if (filters.status && order.status !== filters.status) {
         return false;
@@ -103,6 +103,7 @@ docker run --name ms-orders-lucho-express \
   -e PRODUCT_SERVICE_URL=http://ms-product-lucho-express:8085 \
   -e CUSTOMER_SERVICE_URL=http://ms-customer-lucho-express:8082 \
   -e Tracking_URL=http://ms-tracking-lucho-express:8086 \
+  -e ORDER_NUMBER_NODE_ID=1 \
   -d ms-orders-lucho-express:local
 
 # Microservicio de tracking